@@ -0,0 +1,16 @@
+LOCAL_PATH:= $(call my-dir)
+
+# the policy, built for the host against stand-ins for the framework
+# ============================================================
+include $(CLEAR_VARS)
+
+LOCAL_SRC_FILES := \
+            $(addprefix ../phone/com/android/internal/policy/impl/, \
+                $(shell cat $(LOCAL_PATH)/policy-sources)) \
+            $(call all-java-files-under, policy-stubs) \
+            $(call all-java-files-under, framework-stubs) \
+            $(call all-java-files-under, support)
+
+LOCAL_MODULE:= android.policy-host
+
+include $(BUILD_HOST_JAVA_LIBRARY)
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.app.IStatusBar;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.RemoteException;
+import android.os.ServiceManager;
+import android.view.KeyEvent;
+import android.view.ViewConfiguration;
+import android.view.WindowManager;
+import android.view.WindowManagerPolicy.WindowState;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link PhoneWindowManager#interceptKeyTi} against the dispatch it started
+ * from, for a key the policy doesn't handle, one it does, and a Search+key
+ * shortcut.  The policy matches Search+key through its {@link ChordMatcher}
+ * and lets keys that aren't part of a chord through before asking the
+ * keyguard; the old dispatch tests every key in one if/else chain.  Both
+ * ask a keyguard stand-in that reads its state the way the mediator of
+ * their time did.
+ *
+ * Both also time every call for the policy's latency stats, which costs
+ * about as much as the dispatch itself; {@link #timestamps} measures just
+ * that, to subtract.
+ */
+@State(Scope.Thread)
+public class KeyDispatchBenchmark {
+    /** "policy" for the policy as it is, "chain" for the old dispatch. */
+    @Param({ "policy", "chain" })
+    public String dispatch;
+
+    /**
+     * The part of the policy being measured: just
+     * {@link PhoneWindowManager#interceptKeyTi}.
+     */
+    interface KeyDispatch {
+        boolean interceptKeyTi(WindowState win, int code, int metaKeys, boolean down,
+                int repeatCount);
+    }
+
+    private HostPolicy mHost;
+    private KeyDispatch mDispatch;
+    private HostWindowState mApp;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        mHost = new HostPolicy();
+        mApp = new HostWindowState(WindowManager.LayoutParams.TYPE_APPLICATION, 0);
+        if ("chain".equals(dispatch)) {
+            final ShortcutManager shortcuts = ShortcutManagerBenchmark.load(mHost.context, 26);
+            mDispatch = new ChainKeyDispatch(mHost.context, new Handler(),
+                    new ChainKeyguard(new KeyguardUpdateMonitor(mHost.context)), shortcuts);
+        } else {
+            ShortcutManagerBenchmark.load(mHost.context, 26);
+            final PhoneWindowManager policy = mHost.policy;
+            mDispatch = new KeyDispatch() {
+                public boolean interceptKeyTi(WindowState win, int code, int metaKeys,
+                        boolean down, int repeatCount) {
+                    return policy.interceptKeyTi(win, code, metaKeys, down, repeatCount);
+                }
+            };
+        }
+    }
+
+    private final LatencyStats mLatencyStats = new LatencyStats();
+
+    /** The latency timing of the two calls each key makes. */
+    @Benchmark
+    public void timestamps() {
+        mLatencyStats.end(LatencyStats.INTERCEPT_KEY_TI, mLatencyStats.start());
+        mLatencyStats.end(LatencyStats.INTERCEPT_KEY_TI, mLatencyStats.start());
+    }
+
+    /** A key that isn't a policy key, as most typing is. */
+    @Benchmark
+    public boolean letter() {
+        return mDispatch.interceptKeyTi(mApp, KeyEvent.KEYCODE_A, 0, true, 0)
+                | mDispatch.interceptKeyTi(mApp, KeyEvent.KEYCODE_A, 0, false, 0);
+    }
+
+    @Benchmark
+    public boolean notification() {
+        final boolean handled =
+                mDispatch.interceptKeyTi(mApp, KeyEvent.KEYCODE_NOTIFICATION, 0, true, 0)
+                | mDispatch.interceptKeyTi(mApp, KeyEvent.KEYCODE_NOTIFICATION, 0, false, 0);
+        mHost.looper.runPending();
+        return handled;
+    }
+
+    /** Search+B, which launches the 'b' bookmark. */
+    @Benchmark
+    public boolean searchShortcut() {
+        final KeyDispatch d = mDispatch;
+        final boolean handled = d.interceptKeyTi(mApp, KeyEvent.KEYCODE_SEARCH, 0, true, 0)
+                | d.interceptKeyTi(mApp, KeyEvent.KEYCODE_B, 0, true, 0)
+                | d.interceptKeyTi(mApp, KeyEvent.KEYCODE_B, 0, false, 0)
+                | d.interceptKeyTi(mApp, KeyEvent.KEYCODE_SEARCH, 0, false, 0);
+        mHost.looper.runPending();
+        return handled;
+    }
+
+    /**
+     * The keyguard state as the mediator answered before it published a
+     * snapshot: plain fields, and the update monitor for provisioning.
+     */
+    static class ChainKeyguard {
+        private final KeyguardUpdateMonitor mUpdateMonitor;
+        private boolean mShowing;
+        private boolean mNeedToReshowWhenReenabled;
+
+        ChainKeyguard(KeyguardUpdateMonitor updateMonitor) {
+            mUpdateMonitor = updateMonitor;
+        }
+
+        boolean isShowing() {
+            return mShowing;
+        }
+
+        boolean isInputRestricted() {
+            return mShowing || mNeedToReshowWhenReenabled
+                    || !mUpdateMonitor.isDeviceProvisioned();
+        }
+    }
+
+    /**
+     * The if/else chain interceptKeyTi used before chords, kept as it was
+     * apart from the HOME and MENU actions, which these keys never reach.  It records its latency the way the policy does now, so
+     * that only the dispatch differs.
+     */
+    static class ChainKeyDispatch implements KeyDispatch {
+        private final Context mContext;
+        private final Handler mHandler;
+        private final ChainKeyguard mKeyguardMediator;
+        private final ShortcutManager mShortcutManager;
+        private boolean mHomePressed;
+        private boolean mSearchKeyPressed;
+        private boolean mConsumeSearchKeyUp;
+        private final LatencyStats mLatencyStats = new LatencyStats();
+
+        private final Runnable mHomeLongPress = new Runnable() {
+            public void run() {
+            }
+        };
+
+        ChainKeyDispatch(Context context, Handler handler,
+                ChainKeyguard keyguardMediator, ShortcutManager shortcutManager) {
+            mContext = context;
+            mHandler = handler;
+            mKeyguardMediator = keyguardMediator;
+            mShortcutManager = shortcutManager;
+        }
+
+        private boolean keyguardOn() {
+            return mKeyguardMediator.isShowing() || mKeyguardMediator.isInputRestricted();
+        }
+
+        public boolean interceptKeyTi(WindowState win, int code, int metaKeys, boolean down,
+                int repeatCount) {
+            final long start = mLatencyStats.start();
+            try {
+                return doInterceptKeyTi(win, code, metaKeys, down, repeatCount);
+            } finally {
+                mLatencyStats.end(LatencyStats.INTERCEPT_KEY_TI, start);
+            }
+        }
+
+        private boolean doInterceptKeyTi(WindowState win, int code, int metaKeys, boolean down,
+                int repeatCount) {
+            boolean keyguardOn = keyguardOn();
+
+            if ((code == KeyEvent.KEYCODE_HOME) && !down) {
+                mHandler.removeCallbacks(mHomeLongPress);
+            }
+
+            if (mHomePressed) {
+                if (code == KeyEvent.KEYCODE_HOME && !down) {
+                    mHomePressed = false;
+                }
+                return true;
+            }
+
+            if (code == KeyEvent.KEYCODE_HOME) {
+                WindowManager.LayoutParams attrs = win != null ? win.getAttrs() : null;
+                if (attrs != null) {
+                    int type = attrs.type;
+                    if (type >= WindowManager.LayoutParams.FIRST_SYSTEM_WINDOW
+                            && type <= WindowManager.LayoutParams.LAST_SYSTEM_WINDOW) {
+                        return false;
+                    }
+                }
+                if (down && repeatCount == 0) {
+                    if (!keyguardOn) {
+                        mHandler.postDelayed(mHomeLongPress,
+                                ViewConfiguration.getGlobalActionKeyTimeout());
+                    }
+                    mHomePressed = true;
+                }
+                return true;
+            } else if (code == KeyEvent.KEYCODE_MENU) {
+                // the bug report and process list chords aren't measured
+            } else if (code == KeyEvent.KEYCODE_NOTIFICATION) {
+                if (down) {
+                    IStatusBar sbs = IStatusBar.Stub.asInterface(
+                            ServiceManager.getService("statusbar"));
+                    if (sbs != null) {
+                        try {
+                            sbs.toggle();
+                        } catch (RemoteException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                }
+                return true;
+            } else if (code == KeyEvent.KEYCODE_SEARCH) {
+                if (down) {
+                    if (repeatCount == 0) {
+                        mSearchKeyPressed = true;
+                    }
+                } else {
+                    mSearchKeyPressed = false;
+
+                    if (mConsumeSearchKeyUp) {
+                        mConsumeSearchKeyUp = false;
+                        return true;
+                    }
+                }
+            }
+
+            if (mSearchKeyPressed) {
+                if (down && repeatCount == 0 && !keyguardOn) {
+                    Intent shortcutIntent = mShortcutManager.getIntent(code, metaKeys);
+                    if (shortcutIntent != null) {
+                        shortcutIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                        mContext.startActivity(shortcutIntent);
+                        mConsumeSearchKeyUp = true;
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+    }
+}
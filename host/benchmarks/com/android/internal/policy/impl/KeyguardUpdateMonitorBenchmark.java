@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.content.Intent;
+import android.os.Looper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A time tick through {@link KeyguardUpdateMonitor}: the broadcast, the
+ * message it posts, and the fan-out to every registered info callback.
+ */
+@State(Scope.Thread)
+public class KeyguardUpdateMonitorBenchmark {
+    /** How many info callbacks are registered, as keyguard screens do. */
+    @Param({ "1", "4", "16" })
+    public int callbacks;
+
+    private HostContext mContext;
+    private Looper mLooper;
+    private Intent mTimeTick;
+    private int mTimeChanges;
+
+    @Setup
+    public void setUp() {
+        mLooper = HostPolicy.prepareLooper();
+        mContext = new HostContext();
+        final KeyguardUpdateMonitor monitor = new KeyguardUpdateMonitor(mContext);
+        for (int i = 0; i < callbacks; i++) {
+            monitor.registerInfoCallback(new KeyguardUpdateMonitor.InfoCallback() {
+                public void onRefreshBatteryInfo(boolean showBatteryInfo, boolean pluggedIn,
+                        int batteryLevel) {
+                }
+
+                public void onTimeChanged() {
+                    mTimeChanges++;
+                }
+
+                public void onRefreshCarrierInfo(CharSequence plmn, CharSequence spn) {
+                }
+            });
+        }
+        mTimeTick = new Intent(Intent.ACTION_TIME_TICK);
+        mLooper.runPending();
+    }
+
+    @Benchmark
+    public int timeTick() {
+        mContext.sendBroadcast(mTimeTick);
+        mLooper.runPending();
+        return mTimeChanges;
+    }
+}
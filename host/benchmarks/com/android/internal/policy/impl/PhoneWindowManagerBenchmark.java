@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.content.pm.ActivityInfo;
+import android.view.KeyEvent;
+import android.view.RawInputEvent;
+import android.view.WindowManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The per-event and per-frame entry points of {@link PhoneWindowManager},
+ * run against the real policy on the host.
+ */
+@State(Scope.Thread)
+public class PhoneWindowManagerBenchmark {
+    private static final int DISPLAY_WIDTH = 320;
+    private static final int DISPLAY_HEIGHT = 480;
+
+    private HostPolicy mHost;
+    private PhoneWindowManager mPolicy;
+    private HostWindowState mApp;
+    private HostWindowState[] mWindows;
+    private RawInputEvent mLetterDown;
+    private RawInputEvent mLetterUp;
+    private int[] mTypes;
+    private int[] mOrientations;
+
+    @Setup
+    public void setUp() {
+        mHost = new HostPolicy();
+        mPolicy = mHost.policy;
+        mApp = new HostWindowState(WindowManager.LayoutParams.TYPE_APPLICATION, 0);
+        mWindows = new HostWindowState[] {
+            new HostWindowState(WindowManager.LayoutParams.TYPE_BASE_APPLICATION, 0),
+            mApp,
+            new HostWindowState(WindowManager.LayoutParams.TYPE_APPLICATION_PANEL, 0),
+            new HostWindowState(WindowManager.LayoutParams.TYPE_TOAST, 0),
+        };
+        mLetterDown = key(KeyEvent.KEYCODE_A, 1);
+        mLetterUp = key(KeyEvent.KEYCODE_A, 0);
+        mTypes = new int[] {
+            WindowManager.LayoutParams.TYPE_BASE_APPLICATION,
+            WindowManager.LayoutParams.TYPE_APPLICATION,
+            WindowManager.LayoutParams.TYPE_APPLICATION_STARTING,
+            WindowManager.LayoutParams.TYPE_STATUS_BAR,
+            WindowManager.LayoutParams.TYPE_PHONE,
+            WindowManager.LayoutParams.TYPE_KEYGUARD,
+            WindowManager.LayoutParams.TYPE_TOAST,
+            WindowManager.LayoutParams.TYPE_STATUS_BAR_PANEL,
+        };
+        mOrientations = new int[] {
+            ActivityInfo.SCREEN_ORIENTATION_UNSPECIFIED,
+            ActivityInfo.SCREEN_ORIENTATION_LANDSCAPE,
+            ActivityInfo.SCREEN_ORIENTATION_PORTRAIT,
+            ActivityInfo.SCREEN_ORIENTATION_SENSOR,
+        };
+    }
+
+    private static RawInputEvent key(int keycode, int value) {
+        final RawInputEvent event = new RawInputEvent();
+        event.type = RawInputEvent.EV_KEY;
+        event.keycode = keycode;
+        event.value = value;
+        return event;
+    }
+
+    /** A key that isn't a policy key, as most typing is. */
+    @Benchmark
+    public int interceptKeyTq() {
+        return mPolicy.interceptKeyTq(mLetterDown, true)
+                + mPolicy.interceptKeyTq(mLetterUp, true);
+    }
+
+    @Benchmark
+    public boolean interceptKeyTi() {
+        return mPolicy.interceptKeyTi(mApp, KeyEvent.KEYCODE_A, 0, true, 0)
+                | mPolicy.interceptKeyTi(mApp, KeyEvent.KEYCODE_A, 0, false, 0);
+    }
+
+    /** A key handled from the policy's own table. */
+    @Benchmark
+    public boolean interceptKeyTiNotification() {
+        final boolean handled =
+                mPolicy.interceptKeyTi(mApp, KeyEvent.KEYCODE_NOTIFICATION, 0, true, 0)
+                | mPolicy.interceptKeyTi(mApp, KeyEvent.KEYCODE_NOTIFICATION, 0, false, 0);
+        mHost.looper.runPending();
+        return handled;
+    }
+
+    /** One layout pass over a typical stack of windows. */
+    @Benchmark
+    public void layoutWindowLw() {
+        mPolicy.beginLayoutLw(DISPLAY_WIDTH, DISPLAY_HEIGHT);
+        final HostWindowState[] windows = mWindows;
+        for (int i = 0; i < windows.length; i++) {
+            mPolicy.layoutWindowLw(windows[i], windows[i].getAttrs(), null);
+        }
+        mPolicy.finishLayoutLw();
+    }
+
+    @Benchmark
+    public int windowTypeToLayerLw() {
+        int sum = 0;
+        final int[] types = mTypes;
+        for (int i = 0; i < types.length; i++) {
+            sum += mPolicy.windowTypeToLayerLw(types[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int rotationForOrientation() {
+        int sum = 0;
+        final int[] orientations = mOrientations;
+        for (int i = 0; i < orientations.length; i++) {
+            sum += mPolicy.rotationForOrientation(orientations[i]);
+        }
+        return sum;
+    }
+}
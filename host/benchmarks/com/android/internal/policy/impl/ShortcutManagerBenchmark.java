@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.content.Intent;
+import android.database.Cursor;
+import android.os.Handler;
+import android.util.SparseArray;
+import android.view.KeyCharacterMap;
+import android.view.KeyEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.net.URISyntaxException;
+
+/**
+ * {@link ShortcutManager#getIntent} once the bookmarks have loaded, for a
+ * key with a shortcut and one without, against the lookup it replaced,
+ * which loaded the key character map and searched every shortcut on each
+ * call.
+ */
+@State(Scope.Thread)
+public class ShortcutManagerBenchmark {
+    /** How many bookmarks have a shortcut. */
+    @Param({ "26", "500" })
+    public int bookmarks;
+
+    /** "index" for ShortcutManager as it is, "legacy" for the old lookup. */
+    @Param({ "index", "legacy" })
+    public String lookup;
+
+    interface ShortcutLookup {
+        Intent getIntent(int keyCode, int modifiers);
+    }
+
+    private ShortcutLookup mShortcuts;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        final HostContext context = new HostContext();
+        final ShortcutManager shortcuts = load(context, bookmarks);
+        if ("legacy".equals(lookup)) {
+            mShortcuts = new LegacyShortcuts(context.getBookmarks());
+        } else {
+            mShortcuts = new ShortcutLookup() {
+                public Intent getIntent(int keyCode, int modifiers) {
+                    return shortcuts.getIntent(keyCode, modifiers);
+                }
+            };
+        }
+    }
+
+    /**
+     * Fills the bookmarks table with <var>count</var> rows, shortcuts 'a'
+     * onwards, and waits for a manager observing it to load them.
+     */
+    static ShortcutManager load(HostContext context, int count) throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            context.getBookmarks().addRow(new Object[] {
+                Long.valueOf(i), Integer.valueOf('a' + i),
+                "#Intent;component=com.example/.Bookmark" + i + ";end"
+            });
+        }
+        HostPolicy.prepareLooper();
+        final ShortcutManager shortcuts = new ShortcutManager(context, new Handler());
+        shortcuts.observe();
+        while (count > 0 && shortcuts.getIntent(KeyEvent.KEYCODE_A, 0) == null) {
+            Thread.sleep(1);
+        }
+        return shortcuts;
+    }
+
+    @Benchmark
+    public Intent getIntent() {
+        return mShortcuts.getIntent(KeyEvent.KEYCODE_B, 0);
+    }
+
+    @Benchmark
+    public Intent getIntentShifted() {
+        return mShortcuts.getIntent(KeyEvent.KEYCODE_B, KeyEvent.META_SHIFT_ON);
+    }
+
+    @Benchmark
+    public Intent getIntentNoShortcut() {
+        return mShortcuts.getIntent(KeyEvent.KEYCODE_0, 0);
+    }
+
+    /**
+     * ShortcutManager's lookup before the index: every intent parsed up
+     * front into a map by shortcut character, and the key character map
+     * loaded for each call.
+     */
+    static class LegacyShortcuts implements ShortcutLookup {
+        private static final int COLUMN_SHORTCUT = 1;
+        private static final int COLUMN_INTENT = 2;
+
+        private final SparseArray<Intent> mShortcutIntents = new SparseArray<Intent>();
+
+        LegacyShortcuts(Cursor c) {
+            c.requery();
+            while (c.moveToNext()) {
+                int shortcut = c.getInt(COLUMN_SHORTCUT);
+                if (shortcut == 0) continue;
+                String intentURI = c.getString(COLUMN_INTENT);
+                Intent intent = null;
+                try {
+                    intent = Intent.getIntent(intentURI);
+                } catch (URISyntaxException e) {
+                    continue;
+                }
+                if (intent == null) continue;
+                mShortcutIntents.put(shortcut, intent);
+            }
+        }
+
+        public Intent getIntent(int keyCode, int modifiers) {
+            KeyCharacterMap kcm = KeyCharacterMap.load(KeyCharacterMap.BUILT_IN_KEYBOARD);
+            // First try the exact keycode (with modifiers)
+            int shortcut = kcm.get(keyCode, modifiers);
+            Intent intent = shortcut != 0 ? mShortcutIntents.get(shortcut) : null;
+            if (intent != null) return intent;
+
+            // Next try the keycode without modifiers (the primary character on that key)
+            shortcut = Character.toLowerCase(kcm.get(keyCode, 0));
+            return shortcut != 0 ? mShortcutIntents.get(shortcut) : null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import static android.view.WindowManager.LayoutParams.*;
+
+import android.util.Log;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * {@link PhoneWindowManager#windowTypeToLayerLw} through the layer table
+ * against the switch it replaced, over window types in a fixed random
+ * order, as a window manager with a mix of windows asks.  Some of the types
+ * can be ones with no layer: OEM types in the sub-window and system ranges,
+ * types between and beyond the ranges, and media windows, which only have a
+ * sub-layer.  Log output goes nowhere while this runs, but is still written.
+ */
+@State(Scope.Thread)
+public class WindowLayerTableBenchmark {
+    /** "table" for the policy as it is, "switch" for the old lookup. */
+    @Param({ "table", "switch" })
+    public String lookup;
+
+    /** Percentage of lookups for types with no layer. */
+    @Param({ "0", "10" })
+    public int unknownPercent;
+
+    private static final int[] KNOWN_TYPES = {
+        TYPE_BASE_APPLICATION, TYPE_APPLICATION, TYPE_APPLICATION_STARTING,
+        TYPE_APPLICATION_PANEL, TYPE_APPLICATION_SUB_PANEL,
+        TYPE_STATUS_BAR, TYPE_SEARCH_BAR, TYPE_PHONE, TYPE_SYSTEM_ALERT, TYPE_KEYGUARD,
+        TYPE_TOAST, TYPE_SYSTEM_OVERLAY, TYPE_PRIORITY_PHONE, TYPE_STATUS_BAR_PANEL,
+        TYPE_KEYGUARD_DIALOG, TYPE_SYSTEM_ERROR,
+    };
+
+    private static final int[] UNKNOWN_TYPES = {
+        TYPE_APPLICATION_MEDIA, LAST_SUB_WINDOW, FIRST_SYSTEM_WINDOW + 100,
+        LAST_SYSTEM_WINDOW, LAST_APPLICATION_WINDOW + 1, LAST_SYSTEM_WINDOW + 1, 0, -1,
+    };
+
+    private PhoneWindowManager mPolicy;
+    private boolean mSwitch;
+    private int[] mTypes;
+
+    @Setup
+    public void setUp() {
+        Log.setOutput(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        mPolicy = new HostPolicy().policy;
+        mSwitch = "switch".equals(lookup);
+        final Random random = new Random(0);
+        mTypes = new int[1024];
+        for (int i = 0; i < mTypes.length; i++) {
+            mTypes[i] = random.nextInt(100) < unknownPercent
+                    ? UNKNOWN_TYPES[random.nextInt(UNKNOWN_TYPES.length)]
+                    : KNOWN_TYPES[random.nextInt(KNOWN_TYPES.length)];
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Log.setOutput(System.err);
+    }
+
+    @Benchmark
+    public int windowTypeToLayerLw() {
+        final int[] types = mTypes;
+        int sum = 0;
+        if (mSwitch) {
+            for (int i = 0; i < types.length; i++) {
+                sum += SwitchLayers.windowTypeToLayerLw(types[i]);
+            }
+        } else {
+            final PhoneWindowManager policy = mPolicy;
+            for (int i = 0; i < types.length; i++) {
+                sum += policy.windowTypeToLayerLw(types[i]);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * The switch windowTypeToLayerLw used before the layer table.
+     */
+    static class SwitchLayers {
+        private static final String TAG = "WindowManager";
+
+        private static final int APPLICATION_LAYER = 1;
+        private static final int PHONE_LAYER = 2;
+        private static final int SEARCH_BAR_LAYER = 3;
+        private static final int STATUS_BAR_PANEL_LAYER = 4;
+        private static final int TOAST_LAYER = 5;
+        private static final int STATUS_BAR_LAYER = 6;
+        private static final int PRIORITY_PHONE_LAYER = 7;
+        private static final int SYSTEM_ALERT_LAYER = 8;
+        private static final int SYSTEM_ERROR_LAYER = 9;
+        private static final int KEYGUARD_LAYER = 10;
+        private static final int KEYGUARD_DIALOG_LAYER = 11;
+        private static final int SYSTEM_OVERLAY_LAYER = 12;
+
+        static int windowTypeToLayerLw(int type) {
+            if (type >= FIRST_APPLICATION_WINDOW && type <= LAST_APPLICATION_WINDOW) {
+                return APPLICATION_LAYER;
+            }
+            switch (type) {
+            case TYPE_APPLICATION_PANEL:
+                return APPLICATION_LAYER;
+            case TYPE_APPLICATION_SUB_PANEL:
+                return APPLICATION_LAYER;
+            case TYPE_STATUS_BAR:
+                return STATUS_BAR_LAYER;
+            case TYPE_STATUS_BAR_PANEL:
+                return STATUS_BAR_PANEL_LAYER;
+            case TYPE_SEARCH_BAR:
+                return SEARCH_BAR_LAYER;
+            case TYPE_PHONE:
+                return PHONE_LAYER;
+            case TYPE_KEYGUARD:
+                return KEYGUARD_LAYER;
+            case TYPE_KEYGUARD_DIALOG:
+                return KEYGUARD_DIALOG_LAYER;
+            case TYPE_SYSTEM_ALERT:
+                return SYSTEM_ALERT_LAYER;
+            case TYPE_SYSTEM_ERROR:
+                return SYSTEM_ERROR_LAYER;
+            case TYPE_SYSTEM_OVERLAY:
+                return SYSTEM_OVERLAY_LAYER;
+            case TYPE_PRIORITY_PHONE:
+                return PRIORITY_PHONE_LAYER;
+            case TYPE_TOAST:
+                return TOAST_LAYER;
+            }
+            Log.e(TAG, "Unknown window type: " + type);
+            return APPLICATION_LAYER;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.app;
+
+import android.os.Binder;
+import android.os.IBinder;
+import android.os.IInterface;
+import android.os.RemoteException;
+import android.content.Intent;
+import android.net.Uri;
+
+/**
+ * Host stand-in for the AIDL interface; the harness registers a
+ * {@link Stub} with ServiceManager.
+ */
+public interface IActivityManager extends IInterface {
+    public static final int START_RETURN_INTENT_TO_CALLER = 1;
+
+    public static abstract class Stub extends Binder implements IActivityManager {
+        public static IActivityManager asInterface(IBinder obj) {
+            return obj instanceof IActivityManager ? (IActivityManager) obj : null;
+        }
+
+        public IBinder asBinder() {
+            return this;
+        }
+    }
+
+    int startActivity(IApplicationThread caller, Intent intent, String resolvedType, Uri[] grantedUriPermissions, int grantedMode, IBinder resultTo, String resultWho, int requestCode, boolean onlyIfNeeded, boolean debug) throws RemoteException;
+
+    void enterSafeMode() throws RemoteException;
+}
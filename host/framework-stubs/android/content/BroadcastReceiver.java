@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.content;
+
+public abstract class BroadcastReceiver {
+    private int mResultCode;
+    private String mResultData;
+
+    public BroadcastReceiver() {
+    }
+
+    public abstract void onReceive(Context context, Intent intent);
+
+    public final int getResultCode() {
+        return mResultCode;
+    }
+
+    public final void setResultCode(int code) {
+        mResultCode = code;
+    }
+
+    public final String getResultData() {
+        return mResultData;
+    }
+
+    public final void setResultData(String data) {
+        mResultData = data;
+    }
+
+    public final void abortBroadcast() {
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.content;
+
+import android.database.Cursor;
+import android.os.Handler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Observable;
+
+/**
+ * Host stand-in: the rows of a cursor keyed by one column, read once.
+ */
+public class ContentQueryMap extends Observable {
+    private final HashMap<String, ContentValues> mValues = new HashMap<String, ContentValues>();
+
+    public ContentQueryMap(Cursor cursor, String columnNameOfKey, boolean keepUpdated,
+            Handler handlerForUpdateNotifications) {
+        if (cursor == null) {
+            return;
+        }
+        final String[] columns = cursor.getColumnNames();
+        final int keyColumn = cursor.getColumnIndexOrThrow(columnNameOfKey);
+        cursor.moveToPosition(-1);
+        while (cursor.moveToNext()) {
+            final ContentValues values = new ContentValues();
+            for (int i = 0; i < columns.length; i++) {
+                values.put(columns[i], cursor.getString(i));
+            }
+            mValues.put(cursor.getString(keyColumn), values);
+        }
+    }
+
+    public synchronized ContentValues getValues(String rowName) {
+        return mValues.get(rowName);
+    }
+
+    public synchronized Map<String, ContentValues> getRows() {
+        return new HashMap<String, ContentValues>(mValues);
+    }
+
+    public void close() {
+    }
+}
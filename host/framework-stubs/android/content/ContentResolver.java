@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.content;
+
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Host stand-in: queries return nothing unless a subclass answers them,
+ * and change notifications go to observers registered here.
+ */
+public class ContentResolver {
+    private final HashMap<Uri, ArrayList<ContentObserver>> mObservers =
+            new HashMap<Uri, ArrayList<ContentObserver>>();
+
+    public Cursor query(Uri uri, String[] projection, String selection,
+            String[] selectionArgs, String sortOrder) {
+        return null;
+    }
+
+    public final synchronized void registerContentObserver(Uri uri,
+            boolean notifyForDescendents, ContentObserver observer) {
+        ArrayList<ContentObserver> observers = mObservers.get(uri);
+        if (observers == null) {
+            observers = new ArrayList<ContentObserver>();
+            mObservers.put(uri, observers);
+        }
+        observers.add(observer);
+    }
+
+    public final synchronized void unregisterContentObserver(ContentObserver observer) {
+        for (ArrayList<ContentObserver> observers : mObservers.values()) {
+            observers.remove(observer);
+        }
+    }
+
+    public void notifyChange(Uri uri, ContentObserver observer) {
+        final ArrayList<ContentObserver> observers;
+        synchronized (this) {
+            final ArrayList<ContentObserver> registered = mObservers.get(uri);
+            if (registered == null) {
+                return;
+            }
+            observers = new ArrayList<ContentObserver>(registered);
+        }
+        for (int i = 0; i < observers.size(); i++) {
+            if (observers.get(i) != observer) {
+                observers.get(i).dispatchChange(false);
+            }
+        }
+    }
+}
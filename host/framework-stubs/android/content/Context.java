@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.content;
+
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.os.Handler;
+
+/**
+ * Host stand-in for a context; the harness supplies the implementation.
+ */
+public abstract class Context {
+    public static final String POWER_SERVICE = "power";
+    public static final String WINDOW_SERVICE = "window";
+    public static final String AUDIO_SERVICE = "audio";
+    public static final String TELEPHONY_SERVICE = "phone";
+    public static final String SENSOR_SERVICE = "sensor";
+    public static final String STATUS_BAR_SERVICE = "statusbar";
+    public static final String LAYOUT_INFLATER_SERVICE = "layout_inflater";
+
+    public static final int CONTEXT_INCLUDE_CODE = 0x00000001;
+    public static final int CONTEXT_IGNORE_SECURITY = 0x00000002;
+
+    public abstract Object getSystemService(String name);
+
+    public abstract ContentResolver getContentResolver();
+
+    public abstract Resources getResources();
+
+    public abstract PackageManager getPackageManager();
+
+    public abstract String getPackageName();
+
+    public abstract void setTheme(int resid);
+
+    public abstract Context createPackageContext(String packageName, int flags)
+            throws PackageManager.NameNotFoundException;
+
+    public abstract Intent registerReceiver(BroadcastReceiver receiver, IntentFilter filter);
+
+    public abstract void unregisterReceiver(BroadcastReceiver receiver);
+
+    public abstract void sendBroadcast(Intent intent);
+
+    public abstract void sendOrderedBroadcast(Intent intent, String receiverPermission);
+
+    public abstract void sendOrderedBroadcast(Intent intent, String receiverPermission,
+            BroadcastReceiver resultReceiver, Handler scheduler, int initialCode,
+            String initialData, Object initialExtras);
+
+    public abstract void startActivity(Intent intent);
+
+    public abstract ComponentName startService(Intent service);
+
+    public abstract boolean stopService(Intent service);
+
+    public abstract int checkCallingOrSelfPermission(String permission);
+}
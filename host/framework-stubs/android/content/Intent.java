@@ -0,0 +1,214 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.content;
+
+import android.net.Uri;
+
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Host stand-in for an intent: action, data, categories, flags and extras.
+ */
+public class Intent {
+    public static final String ACTION_MAIN = "android.intent.action.MAIN";
+    public static final String ACTION_BUG_REPORT = "android.intent.action.BUG_REPORT";
+    public static final String ACTION_CLOSE_SYSTEM_DIALOGS =
+            "android.intent.action.CLOSE_SYSTEM_DIALOGS";
+    public static final String ACTION_MEDIA_BUTTON = "android.intent.action.MEDIA_BUTTON";
+    public static final String ACTION_CONFIGURATION_CHANGED =
+            "android.intent.action.CONFIGURATION_CHANGED";
+    public static final String ACTION_PACKAGE_ADDED = "android.intent.action.PACKAGE_ADDED";
+    public static final String ACTION_PACKAGE_CHANGED = "android.intent.action.PACKAGE_CHANGED";
+    public static final String ACTION_PACKAGE_REMOVED = "android.intent.action.PACKAGE_REMOVED";
+    public static final String ACTION_TIME_TICK = "android.intent.action.TIME_TICK";
+    public static final String ACTION_TIME_CHANGED = "android.intent.action.TIME_SET";
+    public static final String ACTION_TIMEZONE_CHANGED = "android.intent.action.TIMEZONE_CHANGED";
+    public static final String ACTION_BATTERY_CHANGED = "android.intent.action.BATTERY_CHANGED";
+    public static final String ACTION_SCREEN_OFF = "android.intent.action.SCREEN_OFF";
+    public static final String ACTION_SCREEN_ON = "android.intent.action.SCREEN_ON";
+    public static final String CATEGORY_HOME = "android.intent.category.HOME";
+    public static final String EXTRA_KEY_EVENT = "android.intent.extra.KEY_EVENT";
+
+    public static final int FLAG_ACTIVITY_NEW_TASK = 0x10000000;
+    public static final int FLAG_ACTIVITY_RESET_TASK_IF_NEEDED = 0x00200000;
+
+    private String mAction;
+    private Uri mData;
+    private int mFlags;
+    private ArrayList<String> mCategories;
+    private HashMap<String, Object> mExtras;
+    private ComponentName mComponent;
+
+    public Intent() {
+    }
+
+    public Intent(String action) {
+        mAction = action;
+    }
+
+    public Intent(String action, Uri uri) {
+        mAction = action;
+        mData = uri;
+    }
+
+    public Intent(Intent o) {
+        mAction = o.mAction;
+        mData = o.mData;
+        mFlags = o.mFlags;
+        mComponent = o.mComponent;
+        if (o.mCategories != null) {
+            mCategories = new ArrayList<String>(o.mCategories);
+        }
+        if (o.mExtras != null) {
+            mExtras = new HashMap<String, Object>(o.mExtras);
+        }
+    }
+
+    /**
+     * Host stand-in for parsing an intent URI: the URI becomes the data of
+     * a view intent.
+     */
+    public static Intent getIntent(String uri) throws URISyntaxException {
+        if (uri.length() == 0) {
+            throw new URISyntaxException(uri, "empty intent URI");
+        }
+        return new Intent("android.intent.action.VIEW", Uri.parse(uri));
+    }
+
+    public String getAction() {
+        return mAction;
+    }
+
+    public Intent setAction(String action) {
+        mAction = action;
+        return this;
+    }
+
+    public Uri getData() {
+        return mData;
+    }
+
+    public Intent setData(Uri data) {
+        mData = data;
+        return this;
+    }
+
+    public int getFlags() {
+        return mFlags;
+    }
+
+    public Intent setFlags(int flags) {
+        mFlags = flags;
+        return this;
+    }
+
+    public Intent addFlags(int flags) {
+        mFlags |= flags;
+        return this;
+    }
+
+    public Intent addCategory(String category) {
+        if (mCategories == null) {
+            mCategories = new ArrayList<String>();
+        }
+        mCategories.add(category);
+        return this;
+    }
+
+    public boolean hasCategory(String category) {
+        return mCategories != null && mCategories.contains(category);
+    }
+
+    public void removeExtra(String name) {
+        if (mExtras != null) {
+            mExtras.remove(name);
+        }
+    }
+
+    public Intent setClassName(Context packageContext, String className) {
+        mComponent = new ComponentName(packageContext.getPackageName(), className);
+        return this;
+    }
+
+    public Intent setClassName(String packageName, String className) {
+        mComponent = new ComponentName(packageName, className);
+        return this;
+    }
+
+    public ComponentName getComponent() {
+        return mComponent;
+    }
+
+    public String resolveTypeIfNeeded(ContentResolver resolver) {
+        return null;
+    }
+
+    private Intent putExtraObject(String name, Object value) {
+        if (mExtras == null) {
+            mExtras = new HashMap<String, Object>();
+        }
+        mExtras.put(name, value);
+        return this;
+    }
+
+    private Object getExtra(String name) {
+        return mExtras != null ? mExtras.get(name) : null;
+    }
+
+    public Intent putExtra(String name, boolean value) {
+        return putExtraObject(name, value);
+    }
+
+    public Intent putExtra(String name, int value) {
+        return putExtraObject(name, value);
+    }
+
+    public Intent putExtra(String name, String value) {
+        return putExtraObject(name, value);
+    }
+
+    public Intent putExtra(String name, Object value) {
+        return putExtraObject(name, value);
+    }
+
+    public boolean getBooleanExtra(String name, boolean defaultValue) {
+        final Object value = getExtra(name);
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    public int getIntExtra(String name, int defaultValue) {
+        final Object value = getExtra(name);
+        return value instanceof Integer ? (Integer) value : defaultValue;
+    }
+
+    public String getStringExtra(String name) {
+        final Object value = getExtra(name);
+        return value instanceof String ? (String) value : null;
+    }
+
+    public Object getParcelableExtra(String name) {
+        return getExtra(name);
+    }
+
+    @Override
+    public String toString() {
+        return "Intent { action=" + mAction + " data=" + mData + " }";
+    }
+}
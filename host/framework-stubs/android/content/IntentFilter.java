@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.content;
+
+import java.util.ArrayList;
+
+public class IntentFilter {
+    private final ArrayList<String> mActions = new ArrayList<String>();
+    private ArrayList<String> mDataSchemes;
+
+    public IntentFilter() {
+    }
+
+    public IntentFilter(String action) {
+        addAction(action);
+    }
+
+    public final void addAction(String action) {
+        mActions.add(action);
+    }
+
+    public final boolean hasAction(String action) {
+        return mActions.contains(action);
+    }
+
+    public final void addDataScheme(String scheme) {
+        if (mDataSchemes == null) {
+            mDataSchemes = new ArrayList<String>();
+        }
+        mDataSchemes.add(scheme);
+    }
+
+    /**
+     * @return Whether <var>intent</var> has one of the actions and, if
+     *   there are data schemes, data with one of them.
+     */
+    public boolean matches(Intent intent) {
+        if (!mActions.contains(intent.getAction())) {
+            return false;
+        }
+        if (mDataSchemes == null) {
+            return intent.getData() == null;
+        }
+        return intent.getData() != null && mDataSchemes.contains(intent.getData().getScheme());
+    }
+}
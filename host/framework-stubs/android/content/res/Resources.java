@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.content.res;
+
+/**
+ * Host stand-in: there are no resources, only a configuration.
+ */
+public class Resources {
+    @SuppressWarnings("serial")
+    public static class NotFoundException extends RuntimeException {
+        public NotFoundException() {
+        }
+
+        public NotFoundException(String name) {
+            super(name);
+        }
+    }
+
+    private final Configuration mConfiguration = new Configuration();
+
+    public Configuration getConfiguration() {
+        return mConfiguration;
+    }
+
+    public CharSequence getText(int id) {
+        return "";
+    }
+
+    public CharSequence getText(int id, CharSequence def) {
+        return def != null ? def : "";
+    }
+
+    public String getString(int id) {
+        return "";
+    }
+
+    public int getInteger(int id) {
+        return 0;
+    }
+
+    public boolean getBoolean(int id) {
+        return false;
+    }
+}
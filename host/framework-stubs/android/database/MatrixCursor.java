@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.database;
+
+import java.util.ArrayList;
+
+/**
+ * Host stand-in: a cursor over rows held in memory.  Observers registered
+ * with it are told when {@link #notifyChange} is called.
+ */
+public class MatrixCursor implements Cursor {
+    private final String[] mColumnNames;
+    private final ArrayList<Object[]> mRows = new ArrayList<Object[]>();
+    private final ArrayList<ContentObserver> mObservers = new ArrayList<ContentObserver>();
+    private int mPosition = -1;
+
+    public MatrixCursor(String[] columnNames) {
+        mColumnNames = columnNames;
+    }
+
+    public void addRow(Object[] columnValues) {
+        if (columnValues.length != mColumnNames.length) {
+            throw new IllegalArgumentException("wrong number of columns");
+        }
+        mRows.add(columnValues.clone());
+    }
+
+    /**
+     * Host only: drop all rows.
+     */
+    public void clearRows() {
+        mRows.clear();
+        mPosition = -1;
+    }
+
+    /**
+     * Host only: tell registered observers the data has changed.
+     */
+    public void notifyChange() {
+        for (int i = 0; i < mObservers.size(); i++) {
+            mObservers.get(i).dispatchChange(false);
+        }
+    }
+
+    public int getCount() {
+        return mRows.size();
+    }
+
+    public int getPosition() {
+        return mPosition;
+    }
+
+    public boolean moveToFirst() {
+        return moveToPosition(0);
+    }
+
+    public boolean moveToNext() {
+        return moveToPosition(mPosition + 1);
+    }
+
+    public boolean moveToPosition(int position) {
+        if (position >= mRows.size()) {
+            mPosition = mRows.size();
+            return false;
+        }
+        mPosition = position;
+        return position >= 0;
+    }
+
+    public int getColumnIndex(String columnName) {
+        for (int i = 0; i < mColumnNames.length; i++) {
+            if (mColumnNames[i].equals(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int getColumnIndexOrThrow(String columnName) {
+        final int index = getColumnIndex(columnName);
+        if (index < 0) {
+            throw new IllegalArgumentException("column '" + columnName + "' does not exist");
+        }
+        return index;
+    }
+
+    public String[] getColumnNames() {
+        return mColumnNames;
+    }
+
+    private Object get(int columnIndex) {
+        return mRows.get(mPosition)[columnIndex];
+    }
+
+    public String getString(int columnIndex) {
+        final Object value = get(columnIndex);
+        return value != null ? value.toString() : null;
+    }
+
+    public int getInt(int columnIndex) {
+        final Object value = get(columnIndex);
+        return value instanceof Number ? ((Number) value).intValue()
+                : value != null ? Integer.parseInt(value.toString()) : 0;
+    }
+
+    public long getLong(int columnIndex) {
+        final Object value = get(columnIndex);
+        return value instanceof Number ? ((Number) value).longValue()
+                : value != null ? Long.parseLong(value.toString()) : 0;
+    }
+
+    public boolean isNull(int columnIndex) {
+        return get(columnIndex) == null;
+    }
+
+    public boolean requery() {
+        mPosition = -1;
+        return true;
+    }
+
+    public void close() {
+    }
+
+    public void registerContentObserver(ContentObserver observer) {
+        mObservers.add(observer);
+    }
+
+    public void unregisterContentObserver(ContentObserver observer) {
+        mObservers.remove(observer);
+    }
+}
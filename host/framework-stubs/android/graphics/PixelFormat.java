@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.graphics;
+
+public class PixelFormat {
+    public static final int UNKNOWN = 0;
+    public static final int TRANSLUCENT = -3;
+    public static final int TRANSPARENT = -2;
+    public static final int OPAQUE = -1;
+    public static final int RGBA_8888 = 1;
+    public static final int RGB_565 = 4;
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.media;
+
+public class AudioManager {
+    public static final int STREAM_VOICE_CALL = 0;
+    public static final int STREAM_SYSTEM = 1;
+    public static final int STREAM_RING = 2;
+    public static final int STREAM_MUSIC = 3;
+    public static final int STREAM_ALARM = 4;
+
+    public static final int ADJUST_RAISE = 1;
+    public static final int ADJUST_LOWER = -1;
+    public static final int ADJUST_SAME = 0;
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.media;
+
+import android.os.Binder;
+import android.os.IBinder;
+import android.os.IInterface;
+import android.os.RemoteException;
+
+/**
+ * Host stand-in for the AIDL interface; the harness registers a
+ * {@link Stub} with ServiceManager.
+ */
+public interface IAudioService extends IInterface {
+    public static abstract class Stub extends Binder implements IAudioService {
+        public static IAudioService asInterface(IBinder obj) {
+            return obj instanceof IAudioService ? (IAudioService) obj : null;
+        }
+
+        public IBinder asBinder() {
+            return this;
+        }
+    }
+
+    void adjustStreamVolume(int streamType, int direction, int flags) throws RemoteException;
+
+    boolean isMusicActive() throws RemoteException;
+}
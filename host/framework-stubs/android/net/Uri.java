@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.net;
+
+/**
+ * Host stand-in: a URI is its string, split at the scheme.
+ */
+public class Uri {
+    private final String mString;
+
+    private Uri(String string) {
+        mString = string;
+    }
+
+    public static Uri parse(String uriString) {
+        return new Uri(uriString);
+    }
+
+    public static Uri withAppendedPath(Uri baseUri, String pathSegment) {
+        return new Uri(baseUri.mString + "/" + pathSegment);
+    }
+
+    public String getScheme() {
+        final int colon = mString.indexOf(':');
+        return colon > 0 ? mString.substring(0, colon) : null;
+    }
+
+    public String getSchemeSpecificPart() {
+        final int colon = mString.indexOf(':');
+        return colon >= 0 ? mString.substring(colon + 1) : mString;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Uri && ((Uri) o).mString.equals(mString);
+    }
+
+    @Override
+    public int hashCode() {
+        return mString.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mString;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+/**
+ * Host stand-in: a binder that lives as long as the JVM.
+ */
+public class Binder implements IBinder {
+    public boolean isBinderAlive() {
+        return true;
+    }
+
+    public void linkToDeath(DeathRecipient recipient, int flags) {
+    }
+
+    public boolean unlinkToDeath(DeathRecipient recipient, int flags) {
+        return true;
+    }
+}
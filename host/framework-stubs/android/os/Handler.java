@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+/**
+ * Host stand-in for a handler, on top of {@link Looper}'s queue.
+ */
+public class Handler {
+    public interface Callback {
+        public boolean handleMessage(Message msg);
+    }
+
+    final Looper mLooper;
+    final MessageQueue mQueue;
+    final Callback mCallback;
+
+    public Handler() {
+        this(Looper.myLooper(), null);
+    }
+
+    public Handler(Callback callback) {
+        this(Looper.myLooper(), callback);
+    }
+
+    public Handler(Looper looper) {
+        this(looper, null);
+    }
+
+    public Handler(Looper looper, Callback callback) {
+        if (looper == null) {
+            throw new RuntimeException(
+                    "Can't create handler inside thread that has not called Looper.prepare()");
+        }
+        mLooper = looper;
+        mQueue = looper.mQueue;
+        mCallback = callback;
+    }
+
+    public void handleMessage(Message msg) {
+    }
+
+    public void dispatchMessage(Message msg) {
+        if (msg.callback != null) {
+            msg.callback.run();
+        } else if (mCallback == null || !mCallback.handleMessage(msg)) {
+            handleMessage(msg);
+        }
+    }
+
+    public final Looper getLooper() {
+        return mLooper;
+    }
+
+    public final Message obtainMessage() {
+        return Message.obtain(this, 0);
+    }
+
+    public final Message obtainMessage(int what) {
+        return Message.obtain(this, what);
+    }
+
+    public final Message obtainMessage(int what, Object obj) {
+        final Message m = Message.obtain(this, what);
+        m.obj = obj;
+        return m;
+    }
+
+    public final Message obtainMessage(int what, int arg1, int arg2) {
+        final Message m = Message.obtain(this, what);
+        m.arg1 = arg1;
+        m.arg2 = arg2;
+        return m;
+    }
+
+    public final Message obtainMessage(int what, int arg1, int arg2, Object obj) {
+        final Message m = obtainMessage(what, arg1, arg2);
+        m.obj = obj;
+        return m;
+    }
+
+    public final boolean post(Runnable r) {
+        return postDelayed(r, 0);
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis) {
+        final Message m = Message.obtain(this, 0);
+        m.callback = r;
+        return sendMessageDelayed(m, delayMillis);
+    }
+
+    public final void removeCallbacks(Runnable r) {
+        mQueue.removeCallbacks(this, r);
+    }
+
+    public final boolean sendMessage(Message msg) {
+        return sendMessageDelayed(msg, 0);
+    }
+
+    public final boolean sendEmptyMessage(int what) {
+        return sendMessage(obtainMessage(what));
+    }
+
+    public final boolean sendEmptyMessageDelayed(int what, long delayMillis) {
+        return sendMessageDelayed(obtainMessage(what), delayMillis);
+    }
+
+    public final boolean sendMessageDelayed(Message msg, long delayMillis) {
+        return sendMessageAtTime(msg, SystemClock.uptimeMillis() + Math.max(0, delayMillis));
+    }
+
+    public boolean sendMessageAtTime(Message msg, long uptimeMillis) {
+        msg.target = this;
+        return mQueue.enqueueMessage(msg, uptimeMillis);
+    }
+
+    public final boolean hasMessages(int what) {
+        return mQueue.hasMessages(this, what, null);
+    }
+
+    public final void removeMessages(int what) {
+        mQueue.removeMessages(this, what, null);
+    }
+
+    public final void removeMessages(int what, Object object) {
+        mQueue.removeMessages(this, what, object);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+/**
+ * Host stand-in for a looper.  Besides {@link #loop}, the harness can run
+ * whatever is due on the calling thread with {@link #runPending}, so that a
+ * benchmark or test thread can act as the policy's looper without blocking.
+ */
+public class Looper {
+    private static final ThreadLocal<Looper> sThreadLocal = new ThreadLocal<Looper>();
+    private static Looper sMainLooper;
+
+    final MessageQueue mQueue = new MessageQueue();
+    private final Thread mThread = Thread.currentThread();
+
+    private Looper() {
+    }
+
+    public static void prepare() {
+        if (sThreadLocal.get() != null) {
+            throw new RuntimeException("Only one Looper may be created per thread");
+        }
+        sThreadLocal.set(new Looper());
+    }
+
+    public static synchronized void prepareMainLooper() {
+        prepare();
+        sMainLooper = myLooper();
+    }
+
+    public static synchronized Looper getMainLooper() {
+        return sMainLooper;
+    }
+
+    public static Looper myLooper() {
+        return sThreadLocal.get();
+    }
+
+    public static void loop() {
+        final MessageQueue queue = myLooper().mQueue;
+        Message msg;
+        while ((msg = queue.next(true)) != null) {
+            msg.target.dispatchMessage(msg);
+        }
+    }
+
+    /**
+     * Host only: dispatch every message that is due, on the calling thread.
+     *
+     * @return How many were dispatched.
+     */
+    public int runPending() {
+        int count = 0;
+        Message msg;
+        while ((msg = mQueue.next(false)) != null) {
+            msg.target.dispatchMessage(msg);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Host only: how many messages are waiting, due or not.
+     */
+    public int pendingCount() {
+        return mQueue.size();
+    }
+
+    public void quit() {
+        mQueue.quit();
+    }
+
+    public Thread getThread() {
+        return mThread;
+    }
+}
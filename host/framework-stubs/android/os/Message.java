@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+/**
+ * Host stand-in for a message; not pooled.
+ */
+public final class Message {
+    public int what;
+    public int arg1;
+    public int arg2;
+    public Object obj;
+
+    long when;
+    Handler target;
+    Runnable callback;
+    Message next;
+
+    public static Message obtain() {
+        return new Message();
+    }
+
+    public static Message obtain(Handler h, int what) {
+        final Message m = new Message();
+        m.target = h;
+        m.what = what;
+        return m;
+    }
+
+    public Handler getTarget() {
+        return target;
+    }
+
+    public Runnable getCallback() {
+        return callback;
+    }
+
+    public long getWhen() {
+        return when;
+    }
+
+    public void sendToTarget() {
+        target.sendMessage(this);
+    }
+
+    public void recycle() {
+    }
+}
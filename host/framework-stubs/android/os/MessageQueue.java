@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+/**
+ * Host stand-in: a list of messages ordered by time, with waiting for the
+ * next one done on the queue's monitor.
+ */
+public class MessageQueue {
+    private Message mMessages;
+    private boolean mQuitting;
+
+    MessageQueue() {
+    }
+
+    synchronized boolean enqueueMessage(Message msg, long when) {
+        if (mQuitting) {
+            return false;
+        }
+        msg.when = when;
+        Message prev = null;
+        Message p = mMessages;
+        while (p != null && p.when <= when) {
+            prev = p;
+            p = p.next;
+        }
+        msg.next = p;
+        if (prev == null) {
+            mMessages = msg;
+        } else {
+            prev.next = msg;
+        }
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * @return The next message, waiting until it is due if
+     *   <var>block</var>; null if there is none due, or the queue has quit.
+     */
+    synchronized Message next(boolean block) {
+        while (true) {
+            if (mQuitting) {
+                return null;
+            }
+            final long now = SystemClock.uptimeMillis();
+            final Message msg = mMessages;
+            if (msg != null && msg.when <= now) {
+                mMessages = msg.next;
+                msg.next = null;
+                return msg;
+            }
+            if (!block) {
+                return null;
+            }
+            try {
+                if (msg == null) {
+                    wait();
+                } else {
+                    wait(Math.max(1, msg.when - now));
+                }
+            } catch (InterruptedException e) {
+                return null;
+            }
+        }
+    }
+
+    synchronized void quit() {
+        mQuitting = true;
+        mMessages = null;
+        notifyAll();
+    }
+
+    synchronized boolean hasMessages(Handler h, int what, Object object) {
+        for (Message p = mMessages; p != null; p = p.next) {
+            if (p.target == h && p.callback == null && p.what == what
+                    && (object == null || p.obj == object)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized void removeMessages(Handler h, int what, Object object) {
+        Message prev = null;
+        Message p = mMessages;
+        while (p != null) {
+            final Message next = p.next;
+            if (p.target == h && p.callback == null && p.what == what
+                    && (object == null || p.obj == object)) {
+                if (prev == null) {
+                    mMessages = next;
+                } else {
+                    prev.next = next;
+                }
+            } else {
+                prev = p;
+            }
+            p = next;
+        }
+    }
+
+    synchronized void removeCallbacks(Handler h, Runnable r) {
+        Message prev = null;
+        Message p = mMessages;
+        while (p != null) {
+            final Message next = p.next;
+            if (p.target == h && p.callback == r) {
+                if (prev == null) {
+                    mMessages = next;
+                } else {
+                    prev.next = next;
+                }
+            } else {
+                prev = p;
+            }
+            p = next;
+        }
+    }
+
+    synchronized int size() {
+        int count = 0;
+        for (Message p = mMessages; p != null; p = p.next) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+/**
+ * Host stand-in: wake locks only count.
+ */
+public class PowerManager {
+    public static final int PARTIAL_WAKE_LOCK = 1;
+    public static final int SCREEN_DIM_WAKE_LOCK = 6;
+    public static final int SCREEN_BRIGHT_WAKE_LOCK = 10;
+    public static final int FULL_WAKE_LOCK = 26;
+    public static final int ACQUIRE_CAUSES_WAKEUP = 0x10000000;
+    public static final int ON_AFTER_RELEASE = 0x20000000;
+
+    public class WakeLock {
+        private int mCount;
+        private boolean mRefCounted = true;
+
+        WakeLock() {
+        }
+
+        public synchronized void acquire() {
+            mCount++;
+        }
+
+        public synchronized void acquire(long timeout) {
+            mCount++;
+        }
+
+        public synchronized void release() {
+            if (!mRefCounted) {
+                mCount = 0;
+            } else if (mCount > 0) {
+                mCount--;
+            }
+        }
+
+        public synchronized void setReferenceCounted(boolean value) {
+            mRefCounted = value;
+        }
+
+        public synchronized boolean isHeld() {
+            return mCount > 0;
+        }
+    }
+
+    public WakeLock newWakeLock(int flags, String tag) {
+        return new WakeLock();
+    }
+
+    public void userActivity(long when, boolean noChangeLights) {
+    }
+
+    public void goToSleep(long time) {
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+import java.util.HashMap;
+
+/**
+ * Host stand-in: services are whatever the harness has added.
+ */
+public final class ServiceManager {
+    private static final HashMap<String, IBinder> sServices = new HashMap<String, IBinder>();
+
+    private ServiceManager() {
+    }
+
+    public static IBinder getService(String name) {
+        synchronized (sServices) {
+            return sServices.get(name);
+        }
+    }
+
+    public static IBinder checkService(String name) {
+        return getService(name);
+    }
+
+    public static void addService(String name, IBinder service) {
+        synchronized (sServices) {
+            sServices.put(name, service);
+        }
+    }
+}
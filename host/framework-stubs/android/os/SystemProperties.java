@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.os;
+
+import java.util.HashMap;
+
+/**
+ * Host stand-in: properties live in memory, falling back to JVM system
+ * properties so they can be given with -D.
+ */
+public final class SystemProperties {
+    private static final HashMap<String, String> sProperties = new HashMap<String, String>();
+
+    private SystemProperties() {
+    }
+
+    public static String get(String key) {
+        return get(key, "");
+    }
+
+    public static String get(String key, String def) {
+        synchronized (sProperties) {
+            final String value = sProperties.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return System.getProperty(key, def);
+    }
+
+    public static int getInt(String key, int def) {
+        try {
+            return Integer.parseInt(get(key));
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean def) {
+        final String value = get(key);
+        if (value.length() == 0) {
+            return def;
+        }
+        return value.equals("1") || value.equals("true") || value.equals("y")
+                || value.equals("yes") || value.equals("on");
+    }
+
+    public static void set(String key, String val) {
+        synchronized (sProperties) {
+            sProperties.put(key, val);
+        }
+    }
+}
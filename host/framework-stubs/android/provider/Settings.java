@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.provider;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+
+import java.util.HashMap;
+
+/**
+ * Host stand-in: system settings are held in memory, shared by every
+ * resolver.
+ */
+public final class Settings {
+    private Settings() {
+    }
+
+    public static final class System {
+        public static final Uri CONTENT_URI = Uri.parse("content://settings/system");
+        public static final String NAME = "name";
+        public static final String VALUE = "value";
+
+        public static final String DEVICE_PROVISIONED = "device_provisioned";
+        public static final String END_BUTTON_BEHAVIOR = "end_button_behavior";
+        public static final String SHOW_PROCESSES = "show_processes";
+
+        private static final HashMap<String, String> sValues = new HashMap<String, String>();
+
+        private System() {
+        }
+
+        public static Uri getUriFor(String name) {
+            return Uri.withAppendedPath(CONTENT_URI, name);
+        }
+
+        public static String getString(ContentResolver resolver, String name) {
+            synchronized (sValues) {
+                return sValues.get(name);
+            }
+        }
+
+        public static boolean putString(ContentResolver resolver, String name, String value) {
+            synchronized (sValues) {
+                sValues.put(name, value);
+            }
+            resolver.notifyChange(getUriFor(name), null);
+            return true;
+        }
+
+        public static int getInt(ContentResolver cr, String name, int def) {
+            final String v = getString(cr, name);
+            try {
+                return v != null ? Integer.parseInt(v) : def;
+            } catch (NumberFormatException e) {
+                return def;
+            }
+        }
+
+        public static boolean putInt(ContentResolver cr, String name, int value) {
+            return putString(cr, name, Integer.toString(value));
+        }
+    }
+
+    public static final class Bookmarks {
+        public static final Uri CONTENT_URI = Uri.parse("content://settings/bookmarks");
+        public static final String _ID = "_id";
+        public static final String TITLE = "title";
+        public static final String FOLDER = "folder";
+        public static final String INTENT = "intent";
+        public static final String SHORTCUT = "shortcut";
+        public static final String ORDERING = "ordering";
+
+        private Bookmarks() {
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.provider;
+
+public final class Telephony {
+    private Telephony() {
+    }
+
+    public static final class Intents {
+        public static final String SPN_STRINGS_UPDATED_ACTION =
+                "android.provider.Telephony.SPN_STRINGS_UPDATED";
+        public static final String EXTRA_SHOW_PLMN = "showPlmn";
+        public static final String EXTRA_PLMN = "plmn";
+        public static final String EXTRA_SHOW_SPN = "showSpn";
+        public static final String EXTRA_SPN = "spn";
+
+        private Intents() {
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.telephony;
+
+import java.util.ArrayList;
+
+/**
+ * Host stand-in: listeners are kept so the harness can change the call
+ * state.
+ */
+public class TelephonyManager {
+    public static final int CALL_STATE_IDLE = 0;
+    public static final int CALL_STATE_RINGING = 1;
+    public static final int CALL_STATE_OFFHOOK = 2;
+
+    private final ArrayList<PhoneStateListener> mListeners = new ArrayList<PhoneStateListener>();
+    private int mCallState = CALL_STATE_IDLE;
+
+    public synchronized void listen(PhoneStateListener listener, int events) {
+        if ((events & PhoneStateListener.LISTEN_CALL_STATE) != 0) {
+            mListeners.add(listener);
+            listener.onCallStateChanged(mCallState, null);
+        } else {
+            mListeners.remove(listener);
+        }
+    }
+
+    public synchronized int getCallState() {
+        return mCallState;
+    }
+
+    /**
+     * Host only: change the call state and tell the listeners.
+     */
+    public synchronized void setCallState(int state) {
+        mCallState = state;
+        for (int i = 0; i < mListeners.size(); i++) {
+            mListeners.get(i).onCallStateChanged(state, null);
+        }
+    }
+}
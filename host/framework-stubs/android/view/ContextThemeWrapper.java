@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+
+public class ContextThemeWrapper extends ContextWrapper {
+    private int mThemeResource;
+
+    public ContextThemeWrapper(Context base, int themeres) {
+        super(base);
+        mThemeResource = themeres;
+    }
+
+    @Override
+    public void setTheme(int resid) {
+        mThemeResource = resid;
+    }
+
+    /**
+     * Host only.
+     */
+    public int getThemeResId() {
+        return mThemeResource;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+/**
+ * Host stand-in for the built-in keyboard's character map: letters and
+ * digits map to themselves, upper case with shift.
+ */
+public class KeyCharacterMap {
+    public static final int BUILT_IN_KEYBOARD = 0;
+
+    private static final KeyCharacterMap sBuiltIn = new KeyCharacterMap();
+    private static int sLoads;
+
+    public static KeyCharacterMap load(int keyboard) {
+        synchronized (KeyCharacterMap.class) {
+            sLoads++;
+        }
+        return sBuiltIn;
+    }
+
+    /**
+     * Host only: how many times {@link #load} has been called.
+     */
+    public static synchronized int getLoadCount() {
+        return sLoads;
+    }
+
+    public int get(int keycode, int meta) {
+        if (keycode >= KeyEvent.KEYCODE_A && keycode <= KeyEvent.KEYCODE_Z) {
+            final char c = (char) ('a' + keycode - KeyEvent.KEYCODE_A);
+            return (meta & KeyEvent.META_SHIFT_ON) != 0 ? Character.toUpperCase(c) : c;
+        }
+        if (keycode >= KeyEvent.KEYCODE_0 && keycode <= KeyEvent.KEYCODE_9) {
+            return '0' + keycode - KeyEvent.KEYCODE_0;
+        }
+        return 0;
+    }
+}
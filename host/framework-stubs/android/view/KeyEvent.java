@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+public class KeyEvent {
+    public static final int KEYCODE_UNKNOWN = 0;
+    public static final int KEYCODE_SOFT_LEFT = 1;
+    public static final int KEYCODE_SOFT_RIGHT = 2;
+    public static final int KEYCODE_HOME = 3;
+    public static final int KEYCODE_BACK = 4;
+    public static final int KEYCODE_CALL = 5;
+    public static final int KEYCODE_ENDCALL = 6;
+    public static final int KEYCODE_0 = 7;
+    public static final int KEYCODE_9 = 16;
+    public static final int KEYCODE_DPAD_UP = 19;
+    public static final int KEYCODE_DPAD_DOWN = 20;
+    public static final int KEYCODE_DPAD_LEFT = 21;
+    public static final int KEYCODE_DPAD_RIGHT = 22;
+    public static final int KEYCODE_DPAD_CENTER = 23;
+    public static final int KEYCODE_VOLUME_UP = 24;
+    public static final int KEYCODE_VOLUME_DOWN = 25;
+    public static final int KEYCODE_POWER = 26;
+    public static final int KEYCODE_CAMERA = 27;
+    public static final int KEYCODE_CLEAR = 28;
+    public static final int KEYCODE_A = 29;
+    public static final int KEYCODE_B = 30;
+    public static final int KEYCODE_C = 31;
+    public static final int KEYCODE_D = 32;
+    public static final int KEYCODE_E = 33;
+    public static final int KEYCODE_F = 34;
+    public static final int KEYCODE_G = 35;
+    public static final int KEYCODE_H = 36;
+    public static final int KEYCODE_I = 37;
+    public static final int KEYCODE_J = 38;
+    public static final int KEYCODE_K = 39;
+    public static final int KEYCODE_L = 40;
+    public static final int KEYCODE_M = 41;
+    public static final int KEYCODE_N = 42;
+    public static final int KEYCODE_O = 43;
+    public static final int KEYCODE_P = 44;
+    public static final int KEYCODE_Q = 45;
+    public static final int KEYCODE_R = 46;
+    public static final int KEYCODE_S = 47;
+    public static final int KEYCODE_T = 48;
+    public static final int KEYCODE_U = 49;
+    public static final int KEYCODE_V = 50;
+    public static final int KEYCODE_W = 51;
+    public static final int KEYCODE_X = 52;
+    public static final int KEYCODE_Y = 53;
+    public static final int KEYCODE_Z = 54;
+    public static final int KEYCODE_ALT_LEFT = 57;
+    public static final int KEYCODE_SHIFT_LEFT = 59;
+    public static final int KEYCODE_SPACE = 62;
+    public static final int KEYCODE_SYM = 63;
+    public static final int KEYCODE_ENTER = 66;
+    public static final int KEYCODE_DEL = 67;
+    public static final int KEYCODE_HEADSETHOOK = 79;
+    public static final int KEYCODE_FOCUS = 80;
+    public static final int KEYCODE_MENU = 82;
+    public static final int KEYCODE_NOTIFICATION = 83;
+    public static final int KEYCODE_SEARCH = 84;
+    public static final int KEYCODE_PLAYPAUSE = 85;
+    public static final int KEYCODE_STOP = 86;
+    public static final int KEYCODE_NEXTSONG = 87;
+    public static final int KEYCODE_PREVIOUSSONG = 88;
+    public static final int KEYCODE_REWIND = 89;
+    public static final int KEYCODE_FORWARD = 90;
+    public static final int KEYCODE_MUTE = 91;
+
+    public static final int ACTION_DOWN = 0;
+    public static final int ACTION_UP = 1;
+    public static final int ACTION_MULTIPLE = 2;
+
+    public static final int META_ALT_ON = 0x02;
+    public static final int META_SHIFT_ON = 0x1;
+    public static final int META_SYM_ON = 0x4;
+
+    private final long mDownTime;
+    private final long mEventTime;
+    private final int mAction;
+    private final int mKeyCode;
+    private final int mRepeatCount;
+
+    public KeyEvent(int action, int code) {
+        this(0, 0, action, code, 0);
+    }
+
+    public KeyEvent(long downTime, long eventTime, int action, int code, int repeat) {
+        mDownTime = downTime;
+        mEventTime = eventTime;
+        mAction = action;
+        mKeyCode = code;
+        mRepeatCount = repeat;
+    }
+
+    public final int getAction() {
+        return mAction;
+    }
+
+    public final int getKeyCode() {
+        return mKeyCode;
+    }
+
+    public final int getRepeatCount() {
+        return mRepeatCount;
+    }
+
+    public final long getDownTime() {
+        return mDownTime;
+    }
+
+    public final long getEventTime() {
+        return mEventTime;
+    }
+}
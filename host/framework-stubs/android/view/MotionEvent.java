@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+public final class MotionEvent {
+    private float mSize;
+    private float[] mHistoricalSizes = new float[0];
+
+    public static MotionEvent obtain(float size, float[] historicalSizes) {
+        final MotionEvent ev = new MotionEvent();
+        ev.mSize = size;
+        ev.mHistoricalSizes = historicalSizes.clone();
+        return ev;
+    }
+
+    public final float getSize() {
+        return mSize;
+    }
+
+    public final int getHistorySize() {
+        return mHistoricalSizes.length;
+    }
+
+    public final float getHistoricalSize(int pos) {
+        return mHistoricalSizes[pos];
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+import android.content.Context;
+
+/**
+ * Host stand-in: there is no sensor, so samples only arrive when the
+ * harness calls {@link #onOrientationChanged}.
+ */
+public abstract class OrientationListener {
+    public static final int ORIENTATION_UNKNOWN = -1;
+
+    private boolean mEnabled;
+
+    public OrientationListener(Context context) {
+    }
+
+    public void enable() {
+        mEnabled = true;
+    }
+
+    public void disable() {
+        mEnabled = false;
+    }
+
+    /**
+     * Host only.
+     */
+    public boolean isEnabled() {
+        return mEnabled;
+    }
+
+    public abstract void onOrientationChanged(int orientation);
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+import android.content.Context;
+import android.graphics.Canvas;
+
+/**
+ * Host stand-in: a view has a size, a tag, layout params and a parent once
+ * it has been added to a window manager.
+ */
+public class View {
+    private final Context mContext;
+    private Object mTag;
+    private ViewGroup.LayoutParams mLayoutParams;
+    Object mParent;
+    private int mWidth;
+    private int mHeight;
+
+    public View(Context context) {
+        mContext = context;
+    }
+
+    public final Context getContext() {
+        return mContext;
+    }
+
+    public Object getTag() {
+        return mTag;
+    }
+
+    public void setTag(Object tag) {
+        mTag = tag;
+    }
+
+    public ViewGroup.LayoutParams getLayoutParams() {
+        return mLayoutParams;
+    }
+
+    public void setLayoutParams(ViewGroup.LayoutParams params) {
+        mLayoutParams = params;
+    }
+
+    public final Object getParent() {
+        return mParent;
+    }
+
+    public final int getWidth() {
+        return mWidth;
+    }
+
+    public final int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * Host only: lay out at the given size.
+     */
+    public void setSize(int w, int h) {
+        final int oldw = mWidth;
+        final int oldh = mHeight;
+        mWidth = w;
+        mHeight = h;
+        onSizeChanged(w, h, oldw, oldh);
+    }
+
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+    }
+
+    protected void onDraw(Canvas canvas) {
+    }
+
+    public void draw(Canvas canvas) {
+        onDraw(canvas);
+    }
+}
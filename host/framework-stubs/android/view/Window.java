@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+
+/**
+ * Host stand-in for a window: attributes and a decor view.
+ */
+public abstract class Window {
+    private final Context mContext;
+    private final WindowManager.LayoutParams mAttributes = new WindowManager.LayoutParams();
+    private final TypedArray mWindowStyle = new TypedArray();
+
+    public Window(Context context) {
+        mContext = context;
+    }
+
+    public final Context getContext() {
+        return mContext;
+    }
+
+    public final WindowManager.LayoutParams getAttributes() {
+        return mAttributes;
+    }
+
+    public final TypedArray getWindowStyle() {
+        return mWindowStyle;
+    }
+
+    public void setType(int type) {
+        mAttributes.type = type;
+    }
+
+    public void setFlags(int flags, int mask) {
+        mAttributes.flags = (mAttributes.flags & ~mask) | (flags & mask);
+    }
+
+    public void setLayout(int width, int height) {
+        mAttributes.width = width;
+        mAttributes.height = height;
+    }
+
+    public abstract void setTitle(CharSequence title);
+
+    public abstract boolean isFloating();
+
+    public abstract View getDecorView();
+}
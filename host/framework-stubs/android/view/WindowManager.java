@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+import android.os.IBinder;
+
+public interface WindowManager {
+    public static class LayoutParams extends ViewGroup.LayoutParams {
+        public static final int FIRST_APPLICATION_WINDOW = 1;
+        public static final int TYPE_BASE_APPLICATION = 1;
+        public static final int TYPE_APPLICATION = 2;
+        public static final int TYPE_APPLICATION_STARTING = 3;
+        public static final int LAST_APPLICATION_WINDOW = 99;
+
+        public static final int FIRST_SUB_WINDOW = 1000;
+        public static final int TYPE_APPLICATION_PANEL = FIRST_SUB_WINDOW;
+        public static final int TYPE_APPLICATION_MEDIA = FIRST_SUB_WINDOW + 1;
+        public static final int TYPE_APPLICATION_SUB_PANEL = FIRST_SUB_WINDOW + 2;
+        public static final int LAST_SUB_WINDOW = 1999;
+
+        public static final int FIRST_SYSTEM_WINDOW = 2000;
+        public static final int TYPE_STATUS_BAR = FIRST_SYSTEM_WINDOW;
+        public static final int TYPE_SEARCH_BAR = FIRST_SYSTEM_WINDOW + 1;
+        public static final int TYPE_PHONE = FIRST_SYSTEM_WINDOW + 2;
+        public static final int TYPE_SYSTEM_ALERT = FIRST_SYSTEM_WINDOW + 3;
+        public static final int TYPE_KEYGUARD = FIRST_SYSTEM_WINDOW + 4;
+        public static final int TYPE_TOAST = FIRST_SYSTEM_WINDOW + 5;
+        public static final int TYPE_SYSTEM_OVERLAY = FIRST_SYSTEM_WINDOW + 6;
+        public static final int TYPE_PRIORITY_PHONE = FIRST_SYSTEM_WINDOW + 7;
+        public static final int TYPE_STATUS_BAR_PANEL = FIRST_SYSTEM_WINDOW + 8;
+        public static final int TYPE_KEYGUARD_DIALOG = FIRST_SYSTEM_WINDOW + 9;
+        public static final int TYPE_SYSTEM_ERROR = FIRST_SYSTEM_WINDOW + 10;
+        public static final int LAST_SYSTEM_WINDOW = 2999;
+
+        public static final int FLAG_NOT_FOCUSABLE = 0x00000008;
+        public static final int FLAG_NOT_TOUCHABLE = 0x00000010;
+        public static final int FLAG_LAYOUT_IN_SCREEN = 0x00000100;
+        public static final int FLAG_LAYOUT_NO_LIMITS = 0x00000200;
+        public static final int FLAG_FULLSCREEN = 0x00000400;
+        public static final int FLAG_FORCE_NOT_FULLSCREEN = 0x00000800;
+        public static final int FLAG_LAYOUT_INSET_DECOR = 0x00010000;
+
+        public int x;
+        public int y;
+        public float horizontalWeight;
+        public float verticalWeight;
+        public int type;
+        public int flags;
+        public int gravity;
+        public float horizontalMargin;
+        public float verticalMargin;
+        public int format;
+        public int windowAnimations;
+        public IBinder token;
+        public String packageName;
+        private CharSequence mTitle = "";
+
+        public LayoutParams() {
+            super(FILL_PARENT, FILL_PARENT);
+            type = TYPE_APPLICATION;
+        }
+
+        public LayoutParams(int type) {
+            super(FILL_PARENT, FILL_PARENT);
+            this.type = type;
+        }
+
+        public LayoutParams(int w, int h, int type, int flags, int format) {
+            super(w, h);
+            this.type = type;
+            this.flags = flags;
+            this.format = format;
+        }
+
+        public final void setTitle(CharSequence title) {
+            mTitle = title != null ? title : "";
+        }
+
+        public final CharSequence getTitle() {
+            return mTitle;
+        }
+    }
+
+    public void addView(View view, ViewGroup.LayoutParams params);
+
+    public void removeView(View view);
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+import java.util.ArrayList;
+
+/**
+ * Host stand-in: added views are given a parent and kept in a list.
+ */
+public class WindowManagerImpl implements WindowManager {
+    public static final int ADD_OKAY = 0;
+    public static final int ADD_BAD_APP_TOKEN = -1;
+    public static final int ADD_BAD_SUBWINDOW_TOKEN = -2;
+    public static final int ADD_NOT_APP_TOKEN = -3;
+    public static final int ADD_APP_EXITING = -4;
+    public static final int ADD_DUPLICATE_ADD = -5;
+    public static final int ADD_STARTING_NOT_NEEDED = -6;
+    public static final int ADD_MULTIPLE_SINGLETON = -7;
+    public static final int ADD_PERMISSION_DENIED = -8;
+
+    @SuppressWarnings("serial")
+    public static class BadTokenException extends RuntimeException {
+        public BadTokenException() {
+        }
+
+        public BadTokenException(String name) {
+            super(name);
+        }
+    }
+
+    private final ArrayList<View> mViews = new ArrayList<View>();
+
+    public synchronized void addView(View view, ViewGroup.LayoutParams params) {
+        if (view.mParent != null) {
+            throw new IllegalStateException("View " + view + " has already been added");
+        }
+        view.setLayoutParams(params);
+        view.mParent = this;
+        mViews.add(view);
+    }
+
+    public synchronized void removeView(View view) {
+        if (mViews.remove(view)) {
+            view.mParent = null;
+        }
+    }
+
+    /**
+     * Host only.
+     */
+    public synchronized int getViewCount() {
+        return mViews.size();
+    }
+}
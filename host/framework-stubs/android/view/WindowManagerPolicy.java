@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package android.view;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Rect;
+import android.os.IBinder;
+import android.os.LocalPowerManager;
+
+/**
+ * Host stand-in for the policy interface, with the methods and constants
+ * PhoneWindowManager implements and uses.
+ */
+public interface WindowManagerPolicy {
+    public final static int FLAG_WAKE = 0x00000001;
+    public final static int FLAG_WAKE_DROPPED = 0x00000002;
+    public final static int FLAG_SHIFT = 0x00000004;
+    public final static int FLAG_CAPS_LOCK = 0x00000008;
+    public final static int FLAG_ALT = 0x00000010;
+    public final static int FLAG_ALT_GR = 0x00000020;
+    public final static int FLAG_MENU = 0x00000040;
+    public final static int FLAG_LAUNCHER = 0x00000080;
+
+    public final static int FLAG_WOKE_HERE = 0x10000000;
+    public final static int FLAG_BRIGHT_HERE = 0x20000000;
+
+    public final static boolean WATCH_POINTER = false;
+
+    public final static int ACTION_PASS_TO_USER = 0x00000001;
+    public final static int ACTION_POKE_USER_ACTIVITY = 0x00000002;
+    public final static int ACTION_GO_TO_SLEEP = 0x00000004;
+
+    public final static int USE_LAST_ROTATION = -1000;
+
+    public final int TRANSIT_NONE = 0;
+    public final int TRANSIT_ENTER = 1;
+    public final int TRANSIT_EXIT = 2;
+    public final int TRANSIT_SHOW = 3;
+    public final int TRANSIT_HIDE = 4;
+    public final int TRANSIT_PREVIEW_DONE = 5;
+
+    public final int OFF_BECAUSE_OF_USER = 1;
+    public final int OFF_BECAUSE_OF_TIMEOUT = 2;
+
+    public interface WindowState {
+        public void computeFrameLw(int pl, int pt, int pr, int pb,
+                int dl, int dt, int dr, int db);
+
+        public Rect getFrameLw();
+
+        public Rect getShownFrameLw();
+
+        public void setCoveredInsetsLw(int l, int t, int r, int b);
+
+        public WindowManager.LayoutParams getAttrs();
+
+        public int getSurfaceLayer();
+
+        public IApplicationToken getAppToken();
+
+        public boolean hasAppShownWindows();
+
+        public boolean hasAppStartingIcon();
+
+        public WindowState getAppStartingWindow();
+
+        public boolean isVisibleLw();
+
+        public boolean isDisplayedLw();
+
+        public boolean fillsScreenLw(int width, int height, boolean shownFrame);
+
+        public boolean hideLw();
+
+        public boolean showLw();
+    }
+
+    public interface OnKeyguardExitResult {
+        void onKeyguardExitResult(boolean success);
+    }
+
+    public void init(Context context, IWindowManager windowManager,
+            LocalPowerManager powerManager);
+
+    public int checkAddPermission(WindowManager.LayoutParams attrs);
+
+    public void adjustWindowParamsLw(WindowManager.LayoutParams attrs);
+
+    public void adjustConfigurationLw(Configuration config);
+
+    public boolean isCheekPressedAgainstScreen(MotionEvent ev);
+
+    public int windowTypeToLayerLw(int type);
+
+    public int subWindowTypeToLayerLw(int type);
+
+    public View addStartingWindow(IBinder appToken, String packageName,
+            int theme, CharSequence nonLocalizedLabel,
+            int labelRes, int icon);
+
+    public void removeStartingWindow(IBinder appToken, View window);
+
+    public int prepareAddWindowLw(WindowState win,
+            WindowManager.LayoutParams attrs);
+
+    public void removeWindowLw(WindowState win);
+
+    public int selectAnimationLw(WindowState win, int transit);
+
+    public boolean interceptKeyTi(WindowState win, int code,
+            int metaKeys, boolean down, int repeatCount);
+
+    public void getCoveredInsetHintLw(WindowManager.LayoutParams attrs, Rect coveredInset);
+
+    public void beginLayoutLw(int displayWidth, int displayHeight);
+
+    public void layoutWindowLw(WindowState win,
+            WindowManager.LayoutParams attrs, WindowState attached);
+
+    public void finishLayoutLw();
+
+    public void beginAnimationLw(int displayWidth, int displayHeight);
+
+    public void animatingWindowLw(WindowState win,
+            WindowManager.LayoutParams attrs);
+
+    public boolean finishAnimationLw();
+
+    public boolean preprocessInputEventTq(RawInputEvent event);
+
+    public boolean isAppSwitchKeyTqTiLwLi(int keycode);
+
+    public boolean isMovementKeyTi(int keycode);
+
+    public int interceptKeyTq(RawInputEvent event, boolean screenIsOn);
+
+    public boolean isWakeRelMovementTq(int device, int classes,
+            RawInputEvent event);
+
+    public boolean isWakeAbsMovementTq(int device, int classes,
+            RawInputEvent event);
+
+    public void screenTurnedOff(int why);
+
+    public void screenTurnedOn();
+
+    public void enableKeyguard(boolean enabled);
+
+    public void exitKeyguardSecurely(OnKeyguardExitResult callback);
+
+    public boolean keyguardIsShowingTq();
+
+    public boolean inKeyguardRestrictedKeyInputMode();
+
+    public int rotationForOrientation(int orientation);
+
+    public void systemReady();
+
+    public void enableScreenAfterBoot();
+
+    public void setCurrentOrientation(int newOrientation);
+}
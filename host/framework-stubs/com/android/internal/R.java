@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.android.internal;
+
+/**
+ * Host stand-in: resource IDs only need to be distinct.
+ */
+public final class R {
+    public static final class anim {
+        public static final int app_starting_exit = 0x010a0001;
+    }
+
+    public static final class string {
+        public static final int lockscreen_carrier_default = 0x01040001;
+    }
+
+    public static final class style {
+        public static final int Theme = 0x01030005;
+    }
+
+    public static final class styleable {
+        public static final int Window_windowAnimationStyle = 8;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.android.internal.policy;
+
+import android.content.Context;
+import android.view.View;
+import android.view.Window;
+
+/**
+ * Host stand-in: windows are plain stand-in windows whose decor view is
+ * an empty view.
+ */
+public final class PolicyManager {
+    private PolicyManager() {
+    }
+
+    public static Window makeNewWindow(Context context) {
+        return new HostWindow(context);
+    }
+
+    private static final class HostWindow extends Window {
+        private View mDecor;
+
+        HostWindow(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void setTitle(CharSequence title) {
+            getAttributes().setTitle(title);
+        }
+
+        @Override
+        public boolean isFloating() {
+            return false;
+        }
+
+        @Override
+        public View getDecorView() {
+            if (mDecor == null) {
+                mDecor = new View(getContext());
+            }
+            return mDecor;
+        }
+    }
+}
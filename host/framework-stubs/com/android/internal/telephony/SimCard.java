@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.android.internal.telephony;
+
+public interface SimCard {
+    static public final String INTENT_KEY_SIM_STATE = "ss";
+    static public final String INTENT_VALUE_SIM_ABSENT = "ABSENT";
+    static public final String INTENT_VALUE_SIM_LOCKED = "LOCKED";
+    static public final String INTENT_VALUE_SIM_READY = "READY";
+    static public final String INTENT_KEY_LOCKED_REASON = "reason";
+    static public final String INTENT_VALUE_LOCKED_ON_PIN = "PIN";
+    static public final String INTENT_VALUE_LOCKED_ON_PUK = "PUK";
+    static public final String INTENT_VALUE_LOCKED_NETWORK = "NETWORK";
+
+    public enum State {
+        UNKNOWN,
+        ABSENT,
+        PIN_REQUIRED,
+        PUK_REQUIRED,
+        NETWORK_LOCKED,
+        READY;
+
+        public boolean isPinLocked() {
+            return this == PIN_REQUIRED || this == PUK_REQUIRED;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.content.Context;
+import android.os.LocalPowerManager;
+import android.view.WindowManagerPolicy;
+
+/**
+ * Host stand-in for the keyguard mediator.  The keyguard is never shown,
+ * but the state the input thread asks about is published and read the way
+ * the real mediator does it, including whether the device is provisioned,
+ * so key dispatch pays what it pays on a device.
+ */
+public class KeyguardViewMediator {
+    private static final class KeyguardState {
+        final int version;
+        final boolean showing;
+        final boolean inputRestricted;
+
+        KeyguardState(int version, boolean showing, boolean inputRestricted) {
+            this.version = version;
+            this.showing = showing;
+            this.inputRestricted = inputRestricted;
+        }
+    }
+
+    private final KeyguardUpdateMonitor mUpdateMonitor;
+    private volatile KeyguardState mPublishedState = new KeyguardState(0, false, false);
+
+    public KeyguardViewMediator(Context context, PhoneWindowManager callback,
+            LocalPowerManager powerManager) {
+        mUpdateMonitor = new KeyguardUpdateMonitor(context);
+        synchronized (this) {
+            publishStateLocked();
+        }
+    }
+
+    private void publishStateLocked() {
+        mPublishedState = new KeyguardState(mPublishedState.version + 1, false,
+                !mUpdateMonitor.isDeviceProvisioned());
+    }
+
+    public void onSystemReady() {
+    }
+
+    public void onScreenTurnedOff(int why) {
+    }
+
+    public void onScreenTurnedOn() {
+    }
+
+    public void setKeyguardEnabled(boolean enabled) {
+    }
+
+    public void verifyUnlock(WindowManagerPolicy.OnKeyguardExitResult callback) {
+        callback.onKeyguardExitResult(true);
+    }
+
+    public boolean isShowing() {
+        return mPublishedState.showing;
+    }
+
+    public boolean isInputRestricted() {
+        return mPublishedState.inputRestricted;
+    }
+
+    public int getStateVersion() {
+        return mPublishedState.version;
+    }
+
+    public boolean onWakeKeyWhenKeyguardShowingTq(int keyCode) {
+        return false;
+    }
+
+    public void pokeWakelock() {
+    }
+
+    public void pokeWakelock(int holdMs) {
+    }
+}
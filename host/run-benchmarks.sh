@@ -0,0 +1,28 @@
+#!/bin/sh
+#
+# Builds the policy for the host with the benchmarks and runs them with JMH.
+#
+#   JMH_CLASSPATH=<jmh-core, jmh-generator-annprocess and their deps> \
+#       ./run-benchmarks.sh [jmh options]
+#
+# For example "./run-benchmarks.sh -f 1 ShortcutManager" runs only the
+# shortcut benchmarks in a single fork.
+
+set -e
+
+if [ -z "$JMH_CLASSPATH" ]; then
+    echo "JMH_CLASSPATH must point at the JMH jars" >&2
+    exit 1
+fi
+
+cd "$(dirname "$0")"
+OUT=${OUT:-/tmp/android.policy-host-benchmarks}
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+# java.util.Observable, which the policy uses, is only deprecated on the host.
+javac -Xlint:all -Xlint:-deprecation -Xlint:-processing -encoding UTF-8 -cp "$JMH_CLASSPATH" -d "$OUT" \
+    $(sed 's#^#../phone/com/android/internal/policy/impl/#' policy-sources) \
+    $(find policy-stubs framework-stubs support benchmarks -name '*.java')
+
+exec java -cp "$OUT:$JMH_CLASSPATH" org.openjdk.jmh.Main "$@"
@@ -0,0 +1,22 @@
+#!/bin/sh
+#
+# Builds the policy for the host and replays input traces recorded on a
+# device (see InputEventRecorder) through it, printing how the policy
+# handled them and its latency stats.
+#
+#   ./run-replay.sh <trace>...
+
+set -e
+
+# not cd'ing, so that trace paths can be relative
+DIR=$(dirname "$0")
+OUT=${OUT:-/tmp/android.policy-host-replay}
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+# java.util.Observable, which the policy uses, is only deprecated on the host.
+javac -Xlint:all -Xlint:-deprecation -Xlint:-processing -encoding UTF-8 -d "$OUT" \
+    $(sed "s#^#$DIR/../phone/com/android/internal/policy/impl/#" "$DIR/policy-sources") \
+    $(find "$DIR/policy-stubs" "$DIR/framework-stubs" "$DIR/support" -name '*.java')
+
+exec java -cp "$OUT" com.android.internal.policy.impl.HostInputReplay "$@"
@@ -0,0 +1,30 @@
+#!/bin/sh
+#
+# Builds the policy for the host with its tests and runs them with JUnit 4.
+#
+#   JUNIT_CLASSPATH=<junit and hamcrest jars> ./run-tests.sh [test classes]
+#
+# With no test classes, every test under tests/ is run.
+
+set -e
+
+if [ -z "$JUNIT_CLASSPATH" ]; then
+    echo "JUNIT_CLASSPATH must point at the JUnit 4 jars" >&2
+    exit 1
+fi
+
+cd "$(dirname "$0")"
+OUT=${OUT:-/tmp/android.policy-host-tests}
+rm -rf "$OUT"
+mkdir -p "$OUT"
+
+# java.util.Observable, which the policy uses, is only deprecated on the host.
+javac -Xlint:all -Xlint:-deprecation -Xlint:-processing -encoding UTF-8 -cp "$JUNIT_CLASSPATH" -d "$OUT" \
+    $(sed 's#^#../phone/com/android/internal/policy/impl/#' policy-sources) \
+    $(find policy-stubs framework-stubs support tests -name '*.java')
+
+if [ $# -eq 0 ]; then
+    set -- $(cd tests && find . -name '*Test.java' | sed 's#^\./##; s#\.java$##; s#/#.#g')
+fi
+
+exec java -cp "$OUT:$JUNIT_CLASSPATH" org.junit.runner.JUnitCore "$@"
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.content.BroadcastReceiver;
+import android.content.ComponentName;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.PowerManager;
+import android.provider.Settings;
+import android.telephony.TelephonyManager;
+import android.view.WindowManagerImpl;
+
+import java.util.ArrayList;
+
+/**
+ * In-memory context for running the policy on a host JVM.  Broadcasts are
+ * delivered synchronously to the receivers registered here, the bookmarks
+ * table is a {@link MatrixCursor} the caller can fill in, and activities and
+ * services that are started are only counted.
+ */
+public class HostContext extends Context {
+    private final Resources mResources = new Resources();
+    private final PowerManager mPowerManager = new PowerManager();
+    private final WindowManagerImpl mWindowManager = new WindowManagerImpl();
+    private final TelephonyManager mTelephonyManager = new TelephonyManager();
+    private final MatrixCursor mBookmarks = new MatrixCursor(new String[] {
+        Settings.Bookmarks._ID, Settings.Bookmarks.SHORTCUT, Settings.Bookmarks.INTENT
+    });
+    private final ContentResolver mResolver = new ContentResolver() {
+        @Override
+        public Cursor query(Uri uri, String[] projection, String selection,
+                String[] selectionArgs, String sortOrder) {
+            if (Settings.Bookmarks.CONTENT_URI.equals(uri)) {
+                return mBookmarks;
+            }
+            return new MatrixCursor(new String[] {
+                Settings.System.NAME, Settings.System.VALUE
+            });
+        }
+    };
+
+    private static final class Registration {
+        final BroadcastReceiver receiver;
+        final IntentFilter filter;
+
+        Registration(BroadcastReceiver receiver, IntentFilter filter) {
+            this.receiver = receiver;
+            this.filter = filter;
+        }
+    }
+
+    private final ArrayList<Registration> mReceivers = new ArrayList<Registration>();
+    private int mActivitiesStarted;
+    private int mBroadcastsSent;
+    private int mTheme;
+
+    /**
+     * @return The bookmarks table that ShortcutManager reads.  Call
+     *   {@link MatrixCursor#notifyChange} after changing it.
+     */
+    public MatrixCursor getBookmarks() {
+        return mBookmarks;
+    }
+
+    public synchronized int getActivitiesStarted() {
+        return mActivitiesStarted;
+    }
+
+    public synchronized int getBroadcastsSent() {
+        return mBroadcastsSent;
+    }
+
+    public synchronized int getReceiverCount() {
+        return mReceivers.size();
+    }
+
+    @Override
+    public Object getSystemService(String name) {
+        if (POWER_SERVICE.equals(name)) {
+            return mPowerManager;
+        } else if (WINDOW_SERVICE.equals(name)) {
+            return mWindowManager;
+        } else if (TELEPHONY_SERVICE.equals(name)) {
+            return mTelephonyManager;
+        }
+        return null;
+    }
+
+    @Override
+    public ContentResolver getContentResolver() {
+        return mResolver;
+    }
+
+    @Override
+    public Resources getResources() {
+        return mResources;
+    }
+
+    @Override
+    public PackageManager getPackageManager() {
+        return null;
+    }
+
+    @Override
+    public String getPackageName() {
+        return "android";
+    }
+
+    @Override
+    public void setTheme(int resid) {
+        mTheme = resid;
+    }
+
+    public int getThemeResId() {
+        return mTheme;
+    }
+
+    @Override
+    public Context createPackageContext(final String packageName, int flags) {
+        return new ContextWrapper(this) {
+            private int mPackageTheme;
+
+            @Override
+            public String getPackageName() {
+                return packageName;
+            }
+
+            @Override
+            public void setTheme(int resid) {
+                mPackageTheme = resid;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Intent registerReceiver(BroadcastReceiver receiver,
+            IntentFilter filter) {
+        mReceivers.add(new Registration(receiver, filter));
+        return null;
+    }
+
+    @Override
+    public synchronized void unregisterReceiver(BroadcastReceiver receiver) {
+        for (int i = mReceivers.size() - 1; i >= 0; i--) {
+            if (mReceivers.get(i).receiver == receiver) {
+                mReceivers.remove(i);
+            }
+        }
+    }
+
+    @Override
+    public void sendBroadcast(Intent intent) {
+        final ArrayList<BroadcastReceiver> receivers = new ArrayList<BroadcastReceiver>();
+        synchronized (this) {
+            mBroadcastsSent++;
+            for (int i = 0; i < mReceivers.size(); i++) {
+                final Registration r = mReceivers.get(i);
+                if (r.filter.matches(intent)) {
+                    receivers.add(r.receiver);
+                }
+            }
+        }
+        for (int i = 0; i < receivers.size(); i++) {
+            receivers.get(i).onReceive(this, intent);
+        }
+    }
+
+    @Override
+    public void sendOrderedBroadcast(Intent intent, String receiverPermission) {
+        sendBroadcast(intent);
+    }
+
+    @Override
+    public void sendOrderedBroadcast(Intent intent, String receiverPermission,
+            final BroadcastReceiver resultReceiver, Handler scheduler, int initialCode,
+            String initialData, Object initialExtras) {
+        sendBroadcast(intent);
+        if (resultReceiver != null) {
+            resultReceiver.setResultCode(initialCode);
+            final Intent result = intent;
+            if (scheduler != null) {
+                scheduler.post(new Runnable() {
+                    public void run() {
+                        resultReceiver.onReceive(HostContext.this, result);
+                    }
+                });
+            } else {
+                resultReceiver.onReceive(this, result);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void startActivity(Intent intent) {
+        mActivitiesStarted++;
+    }
+
+    @Override
+    public ComponentName startService(Intent service) {
+        return service.getComponent();
+    }
+
+    @Override
+    public boolean stopService(Intent service) {
+        return true;
+    }
+
+    @Override
+    public int checkCallingOrSelfPermission(String permission) {
+        return PackageManager.PERMISSION_GRANTED;
+    }
+}
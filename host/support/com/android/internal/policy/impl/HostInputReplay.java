@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+
+import android.view.WindowManagerPolicy;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+
+/**
+ * Replays input traces written by {@link InputEventRecorder} through a
+ * {@link HostPolicy}, running whatever the policy posts to its looper after
+ * each record, and tallies how the policy handled them.
+ *
+ * From the command line, run-replay.sh replays each trace it is given
+ * through a new policy and prints the tallies.
+ */
+public class HostInputReplay {
+    private static final int NUM_KINDS = InputEventRecorder.RECORD_KEY_TI + 1;
+
+    private final HostPolicy mHost;
+
+    private final int[] mRecords = new int[NUM_KINDS];
+    private final int[] mHandled = new int[NUM_KINDS];
+    private int mKeyguardMismatches;
+
+    public HostInputReplay(HostPolicy host) {
+        mHost = host;
+    }
+
+    /**
+     * Replay the trace in <var>in</var>, which is closed afterwards.
+     *
+     * @param callback Told about each record once what it posted has run,
+     *   may be null.
+     * @return The number of records replayed.
+     */
+    int replay(InputStream in, final InputEventReplayer.Callback callback)
+            throws IOException {
+        final InputEventReplayer replayer = new InputEventReplayer(in);
+        try {
+            return replayer.replay(mHost.policy, new InputEventReplayer.Callback() {
+                public void onRecord(int kind, long recordedTime, int state, int result) {
+                    mHost.looper.runPending();
+                    tally(kind, state, result);
+                    if (callback != null) {
+                        callback.onRecord(kind, recordedTime, state, result);
+                    }
+                }
+            });
+        } finally {
+            replayer.close();
+        }
+    }
+
+    private void tally(int kind, int state, int result) {
+        mRecords[kind]++;
+        if (kind == InputEventRecorder.RECORD_KEY_TQ
+                ? (result & WindowManagerPolicy.ACTION_PASS_TO_USER) != 0
+                : result != 0) {
+            mHandled[kind]++;
+        }
+        final boolean recordedShowing = (state & InputEventRecorder.STATE_KEYGUARD_SHOWING) != 0;
+        if (recordedShowing != mHost.policy.keyguardIsShowingTq()) {
+            mKeyguardMismatches++;
+        }
+    }
+
+    /**
+     * @return How many records of <var>kind</var>, one of the
+     *   InputEventRecorder.RECORD_* constants, have been replayed.
+     */
+    public int getRecords(int kind) {
+        return mRecords[kind];
+    }
+
+    /**
+     * @return How many records of <var>kind</var> the policy handled: those
+     *   it passed to the user for interceptKeyTq, and those it returned true
+     *   for otherwise.
+     */
+    public int getHandled(int kind) {
+        return mHandled[kind];
+    }
+
+    /**
+     * @return How many records were recorded with the keyguard in a
+     *   different state than the replaying policy's after the record.
+     */
+    public int getKeyguardMismatches() {
+        return mKeyguardMismatches;
+    }
+
+    public void dump(PrintWriter pw) {
+        pw.print("preprocessed="); pw.print(mRecords[InputEventRecorder.RECORD_PREPROCESS]);
+                pw.print(" kept="); pw.println(mHandled[InputEventRecorder.RECORD_PREPROCESS]);
+        pw.print("keysTq="); pw.print(mRecords[InputEventRecorder.RECORD_KEY_TQ]);
+                pw.print(" passedToUser="); pw.println(mHandled[InputEventRecorder.RECORD_KEY_TQ]);
+        pw.print("keysTi="); pw.print(mRecords[InputEventRecorder.RECORD_KEY_TI]);
+                pw.print(" consumed="); pw.println(mHandled[InputEventRecorder.RECORD_KEY_TI]);
+        pw.print("keyguardMismatches="); pw.println(mKeyguardMismatches);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: HostInputReplay <trace>...");
+            System.exit(1);
+        }
+        final PrintWriter pw = new PrintWriter(System.out, true);
+        for (String path : args) {
+            final HostPolicy host = new HostPolicy();
+            final HostInputReplay replay = new HostInputReplay(host);
+            final long start = System.nanoTime();
+            final int count = replay.replay(new FileInputStream(path), null);
+            final long elapsedUs = (System.nanoTime() - start) / 1000;
+            pw.print(path); pw.print(": "); pw.print(count); pw.print(" records in ");
+                    pw.print(elapsedUs); pw.println("us");
+            replay.dump(pw);
+            host.policy.dump(pw);
+        }
+    }
+}
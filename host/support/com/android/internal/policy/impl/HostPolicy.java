@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.os.LocalPowerManager;
+import android.os.Looper;
+import android.provider.Settings;
+import android.view.IWindowManager;
+
+/**
+ * Creates a {@link PhoneWindowManager} on a host JVM, with in-memory
+ * stand-ins for the window manager and power manager it talks to.  The
+ * policy's looper is the calling thread's; run what it has posted with
+ * {@link Looper#runPending}.
+ */
+public class HostPolicy {
+    /**
+     * The window manager as the policy sees it: a lid switch and a record
+     * of the rotation last set.
+     */
+    public static class WindowManagerService extends IWindowManager.Stub {
+        public volatile int lidSwitch;
+        public volatile int rotation;
+        public volatile int rotationsSet;
+
+        public int getSwitchState(int sw) {
+            return lidSwitch;
+        }
+
+        public int getKeycodeState(int keycode) {
+            return 0;
+        }
+
+        public void setRotation(int rotation, boolean alwaysSendConfiguration) {
+            this.rotation = rotation;
+            rotationsSet++;
+        }
+    }
+
+    /**
+     * The power manager as the policy sees it; user activity is counted.
+     */
+    public static class PowerManagerService implements LocalPowerManager {
+        public volatile int userActivity;
+
+        public void goToSleep(long time) {
+        }
+
+        public void userActivity(long time, boolean noChangeLights, int eventType) {
+            userActivity++;
+        }
+
+        public void setKeyboardVisibility(boolean visible) {
+        }
+
+        public void enableUserActivity(boolean enabled) {
+        }
+    }
+
+    public final HostContext context = new HostContext();
+    public final WindowManagerService windowManager = new WindowManagerService();
+    public final PowerManagerService powerManager = new PowerManagerService();
+    public final PhoneWindowManager policy = new PhoneWindowManager();
+    public final Looper looper;
+
+    public HostPolicy() {
+        looper = prepareLooper();
+        // a provisioned device, so keys aren't restricted as if in setup
+        Settings.System.putInt(context.getContentResolver(),
+                Settings.System.DEVICE_PROVISIONED, 1);
+        policy.init(context, windowManager, powerManager);
+        policy.screenTurnedOn();
+        looper.runPending();
+    }
+
+    /**
+     * @return The calling thread's looper, prepared if it hadn't been.
+     */
+    public static Looper prepareLooper() {
+        if (Looper.myLooper() == null) {
+            Looper.prepare();
+        }
+        return Looper.myLooper();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.graphics.Rect;
+import android.view.IApplicationToken;
+import android.view.WindowManager;
+import android.view.WindowManagerPolicy.WindowState;
+
+/**
+ * In-memory window for laying out on a host JVM.  The frame is the parent
+ * frame, shrunk to the requested size when the window asks for one.
+ */
+public class HostWindowState implements WindowState {
+    private final WindowManager.LayoutParams mAttrs;
+    private final Rect mFrame = new Rect();
+    private final Rect mCoveredInsets = new Rect();
+    private boolean mVisible = true;
+    private int mFrameComputations;
+
+    public HostWindowState(WindowManager.LayoutParams attrs) {
+        mAttrs = attrs;
+    }
+
+    public HostWindowState(int type, int flags) {
+        this(new WindowManager.LayoutParams(WindowManager.LayoutParams.FILL_PARENT,
+                WindowManager.LayoutParams.FILL_PARENT, type, flags, 0));
+    }
+
+    public void computeFrameLw(int pl, int pt, int pr, int pb,
+            int dl, int dt, int dr, int db) {
+        mFrameComputations++;
+        final int w = mAttrs.width >= 0 ? mAttrs.width : pr - pl;
+        final int h = mAttrs.height >= 0 ? mAttrs.height : pb - pt;
+        mFrame.set(pl, pt, Math.min(pr, pl + w), Math.min(pb, pt + h));
+    }
+
+    public Rect getFrameLw() {
+        return mFrame;
+    }
+
+    public Rect getShownFrameLw() {
+        return mFrame;
+    }
+
+    public void setCoveredInsetsLw(int l, int t, int r, int b) {
+        mCoveredInsets.set(l, t, r, b);
+    }
+
+    /**
+     * @return The insets last given to {@link #setCoveredInsetsLw}.
+     */
+    public Rect getCoveredInsets() {
+        return mCoveredInsets;
+    }
+
+    /**
+     * @return How many times the frame has been computed.
+     */
+    public int getFrameComputations() {
+        return mFrameComputations;
+    }
+
+    public WindowManager.LayoutParams getAttrs() {
+        return mAttrs;
+    }
+
+    public int getSurfaceLayer() {
+        return 0;
+    }
+
+    public IApplicationToken getAppToken() {
+        return null;
+    }
+
+    public boolean hasAppShownWindows() {
+        return false;
+    }
+
+    public boolean hasAppStartingIcon() {
+        return false;
+    }
+
+    public WindowState getAppStartingWindow() {
+        return null;
+    }
+
+    public boolean isVisibleLw() {
+        return mVisible;
+    }
+
+    public boolean isDisplayedLw() {
+        return mVisible;
+    }
+
+    public boolean fillsScreenLw(int width, int height, boolean shownFrame) {
+        return mFrame.left <= 0 && mFrame.top <= 0
+                && mFrame.right >= width && mFrame.bottom >= height;
+    }
+
+    public boolean hideLw() {
+        if (!mVisible) {
+            return false;
+        }
+        mVisible = false;
+        return true;
+    }
+
+    public boolean showLw() {
+        if (mVisible) {
+            return false;
+        }
+        mVisible = true;
+        return true;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import android.view.WindowManager;
+import android.view.WindowManagerImpl;
+
+import org.junit.Test;
+
+public class DisplayLayoutContextTest {
+    private static HostWindowState window(int type) {
+        return new HostWindowState(type, 0);
+    }
+
+    @Test
+    public void beginLayoutMakesTheWholeDisplayAvailable() {
+        final DisplayLayoutContext display = new DisplayLayoutContext(1, false);
+        display.curTop = 25;
+        display.beginLayout(320, 480);
+        assertEquals(320, display.w);
+        assertEquals(480, display.h);
+        assertEquals(0, display.curLeft);
+        assertEquals(0, display.curTop);
+        assertEquals(320, display.curRight);
+        assertEquals(480, display.curBottom);
+    }
+
+    @Test
+    public void onlyOneOfEachSingletonPerDisplay() {
+        final DisplayLayoutContext display = new DisplayLayoutContext(1, false);
+        final int[] types = {
+            WindowManager.LayoutParams.TYPE_STATUS_BAR,
+            WindowManager.LayoutParams.TYPE_SEARCH_BAR,
+            WindowManager.LayoutParams.TYPE_KEYGUARD,
+        };
+        for (int type : types) {
+            final HostWindowState first = window(type);
+            assertEquals(WindowManagerImpl.ADD_OKAY, display.addWindow(first, first.getAttrs()));
+            final HostWindowState second = window(type);
+            assertEquals(WindowManagerImpl.ADD_MULTIPLE_SINGLETON,
+                    display.addWindow(second, second.getAttrs()));
+        }
+    }
+
+    @Test
+    public void otherWindowsAreNotSingletons() {
+        final DisplayLayoutContext display = new DisplayLayoutContext(1, false);
+        for (int i = 0; i < 2; i++) {
+            final HostWindowState app = window(WindowManager.LayoutParams.TYPE_APPLICATION);
+            assertEquals(WindowManagerImpl.ADD_OKAY, display.addWindow(app, app.getAttrs()));
+        }
+        assertNull(display.statusBar);
+        assertNull(display.searchBar);
+        assertNull(display.keyguard);
+    }
+
+    @Test
+    public void removingASingletonMakesRoomForAnother() {
+        final DisplayLayoutContext display = new DisplayLayoutContext(1, true);
+        final HostWindowState statusBar = window(WindowManager.LayoutParams.TYPE_STATUS_BAR);
+        display.addWindow(statusBar, statusBar.getAttrs());
+        display.removeWindow(statusBar);
+        assertNull(display.statusBar);
+
+        final HostWindowState next = window(WindowManager.LayoutParams.TYPE_STATUS_BAR);
+        assertEquals(WindowManagerImpl.ADD_OKAY, display.addWindow(next, next.getAttrs()));
+        assertSame(next, display.statusBar);
+    }
+
+    @Test
+    public void removingAnotherWindowKeepsTheSingletons() {
+        final DisplayLayoutContext display = new DisplayLayoutContext(1, false);
+        final HostWindowState keyguard = window(WindowManager.LayoutParams.TYPE_KEYGUARD);
+        display.addWindow(keyguard, keyguard.getAttrs());
+        display.removeWindow(window(WindowManager.LayoutParams.TYPE_KEYGUARD));
+        assertSame(keyguard, display.keyguard);
+    }
+
+    @Test
+    public void incrementalLayoutGetsACache() {
+        assertNull(new DisplayLayoutContext(1, false).layoutCache);
+        assertEquals(LayoutCache.class, new DisplayLayoutContext(1, true).layoutCache.getClass());
+    }
+}
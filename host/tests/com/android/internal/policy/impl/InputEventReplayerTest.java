@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import android.view.KeyEvent;
+import android.view.RawInputEvent;
+import android.view.WindowManagerPolicy;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class InputEventReplayerTest {
+    private static final int PASS = WindowManagerPolicy.ACTION_PASS_TO_USER;
+    private static final int POKE = WindowManagerPolicy.ACTION_POKE_USER_ACTIVITY;
+
+    /**
+     * Records keys as the policy does when tracing, while passing them to a
+     * live policy to note what it returned.
+     */
+    private static class Recording {
+        final HostPolicy live = new HostPolicy();
+        final ArrayList<Integer> results = new ArrayList<Integer>();
+        final CountDownLatch closed = new CountDownLatch(1);
+        final ByteArrayOutputStream trace = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.countDown();
+            }
+        };
+        final InputEventRecorder recorder;
+
+        Recording() throws IOException {
+            recorder = new InputEventRecorder(trace);
+        }
+
+        void keyTq(int code, boolean down, int flags, boolean screenOn) {
+            final RawInputEvent event = new RawInputEvent();
+            event.type = RawInputEvent.EV_KEY;
+            event.keycode = code;
+            event.value = down ? 1 : 0;
+            event.flags = flags;
+            recorder.recordKeyTq(event, screenOn, live.policy.keyguardIsShowingTq());
+            results.add(live.policy.interceptKeyTq(event, screenOn));
+            live.looper.runPending();
+        }
+
+        void keyTi(int code, boolean down) {
+            recorder.recordKeyTi(-1, code, 0, down, 0, true, live.policy.keyguardIsShowingTq());
+            results.add(live.policy.interceptKeyTi(null, code, 0, down, 0) ? 1 : 0);
+            live.looper.runPending();
+        }
+
+        /** Both halves of a key press, as the two input threads see them. */
+        void press(int code) {
+            keyTq(code, true, 0, true);
+            keyTi(code, true);
+            keyTq(code, false, 0, true);
+            keyTi(code, false);
+        }
+
+        byte[] finish() throws InterruptedException {
+            recorder.close();
+            assertTrue("trace never written", closed.await(5, TimeUnit.SECONDS));
+            return trace.toByteArray();
+        }
+    }
+
+    @Test
+    public void replaysTheOutcomesThePolicyRecorded() throws Exception {
+        final Recording recording = new Recording();
+        recording.press(KeyEvent.KEYCODE_A);
+        recording.press(KeyEvent.KEYCODE_HOME);
+        recording.press(KeyEvent.KEYCODE_NOTIFICATION);
+        recording.keyTq(KeyEvent.KEYCODE_A, true, WindowManagerPolicy.FLAG_WAKE, false);
+        final byte[] trace = recording.finish();
+        assertEquals(1, recording.live.context.getActivitiesStarted());
+
+        final HostPolicy host = new HostPolicy();
+        final HostInputReplay replay = new HostInputReplay(host);
+        final ArrayList<Integer> kinds = new ArrayList<Integer>();
+        final ArrayList<Integer> results = new ArrayList<Integer>();
+        final int count = replay.replay(new ByteArrayInputStream(trace),
+                new InputEventReplayer.Callback() {
+                    public void onRecord(int kind, long recordedTime, int state, int result) {
+                        kinds.add(kind);
+                        results.add(result);
+                    }
+                });
+
+        assertEquals(13, count);
+        assertEquals(recording.results, results);
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i % 2 == 0 ? InputEventRecorder.RECORD_KEY_TQ
+                    : InputEventRecorder.RECORD_KEY_TI, (int) kinds.get(i));
+        }
+        // A goes to the application; HOME and NOTIFICATION are the policy's
+        assertEquals(PASS, (int) results.get(0));
+        assertEquals(0, (int) results.get(1));
+        assertEquals(0, (int) results.get(3));
+        assertEquals(1, (int) results.get(5));
+        assertEquals(1, (int) results.get(7));
+        assertEquals(1, (int) results.get(9));
+        assertEquals(1, (int) results.get(11));
+        // with the screen off, a wake key only wakes the device
+        assertEquals(POKE, (int) results.get(12));
+        // HOME went home once it was released
+        assertEquals(1, host.context.getActivitiesStarted());
+
+        assertEquals(7, replay.getRecords(InputEventRecorder.RECORD_KEY_TQ));
+        assertEquals(6, replay.getHandled(InputEventRecorder.RECORD_KEY_TQ));
+        assertEquals(6, replay.getRecords(InputEventRecorder.RECORD_KEY_TI));
+        assertEquals(4, replay.getHandled(InputEventRecorder.RECORD_KEY_TI));
+        assertEquals(0, replay.getKeyguardMismatches());
+    }
+
+    @Test
+    public void rejectsSomethingThatIsNotATrace() {
+        final HostInputReplay replay = new HostInputReplay(new HostPolicy());
+        try {
+            replay.replay(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 }),
+                    null);
+            fail("replayed a file that isn't a trace");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.view.WindowManager;
+
+import org.junit.Test;
+
+public class LayoutCacheTest {
+    private final LayoutCache mCache = new LayoutCache();
+
+    private boolean layout(HostWindowState win, int top) {
+        return mCache.needsLayout(win, win.getAttrs(), 0, top, 0, 0,
+                0, top, 320, 480, 0, top, 320, 480);
+    }
+
+    private static HostWindowState window(int width, int height) {
+        return new HostWindowState(new WindowManager.LayoutParams(width, height,
+                WindowManager.LayoutParams.TYPE_APPLICATION, 0, 0));
+    }
+
+    @Test
+    public void fillParentWindowsAreSkippedUntilTheirInputsChange() {
+        final HostWindowState win = window(WindowManager.LayoutParams.FILL_PARENT,
+                WindowManager.LayoutParams.FILL_PARENT);
+        assertTrue(layout(win, 25));
+        assertFalse(layout(win, 25));
+        assertTrue(layout(win, 0));
+
+        win.getAttrs().flags |= WindowManager.LayoutParams.FLAG_LAYOUT_IN_SCREEN;
+        assertTrue(layout(win, 0));
+        assertFalse(layout(win, 0));
+    }
+
+    @Test
+    public void windowsSizedByTheirClientAreAlwaysLaidOut() {
+        final HostWindowState[] wins = {
+            window(WindowManager.LayoutParams.WRAP_CONTENT,
+                    WindowManager.LayoutParams.FILL_PARENT),
+            window(WindowManager.LayoutParams.FILL_PARENT, 25),
+            window(200, 100),
+        };
+        for (HostWindowState win : wins) {
+            assertTrue(layout(win, 25));
+            assertTrue(layout(win, 25));
+        }
+    }
+
+    @Test
+    public void removedWindowsAreLaidOutAgain() {
+        final HostWindowState win = window(WindowManager.LayoutParams.FILL_PARENT,
+                WindowManager.LayoutParams.FILL_PARENT);
+        layout(win, 25);
+        mCache.remove(win);
+        assertTrue(layout(win, 25));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Rect;
+import android.view.WindowManager;
+import android.view.WindowManagerImpl;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Layout of several displays through {@link PhoneWindowManager}, with
+ * stand-in displays that each have a status bar and an application window.
+ */
+public class MultiDisplayLayoutTest {
+    private static final int STATUS_BAR_HEIGHT = 25;
+
+    /** A display the window manager would lay out. */
+    private static class StandInDisplay {
+        final int id;
+        final int width;
+        final int height;
+        final HostWindowState statusBar = new HostWindowState(
+                new WindowManager.LayoutParams(WindowManager.LayoutParams.FILL_PARENT,
+                        STATUS_BAR_HEIGHT, WindowManager.LayoutParams.TYPE_STATUS_BAR, 0, 0));
+        final HostWindowState app =
+                new HostWindowState(WindowManager.LayoutParams.TYPE_APPLICATION, 0);
+        final HostWindowState fullscreen = new HostWindowState(
+                WindowManager.LayoutParams.TYPE_APPLICATION,
+                WindowManager.LayoutParams.FLAG_LAYOUT_IN_SCREEN
+                        | WindowManager.LayoutParams.FLAG_LAYOUT_INSET_DECOR);
+
+        StandInDisplay(int id, int width, int height) {
+            this.id = id;
+            this.width = width;
+            this.height = height;
+        }
+
+        void layout(PhoneWindowManager policy) {
+            policy.beginLayoutLw(id, width, height);
+            policy.layoutWindowLw(id, statusBar, statusBar.getAttrs(), null);
+            policy.layoutWindowLw(id, app, app.getAttrs(), null);
+            policy.layoutWindowLw(id, fullscreen, fullscreen.getAttrs(), null);
+            policy.finishLayoutLw(id);
+        }
+    }
+
+    private PhoneWindowManager mPolicy;
+
+    @Before
+    public void setUp() {
+        mPolicy = new HostPolicy().policy;
+    }
+
+    @Test
+    public void eachDisplayHasItsOwnSingletons() {
+        final StandInDisplay phone = new StandInDisplay(0, 320, 480);
+        final StandInDisplay external = new StandInDisplay(1, 800, 600);
+        assertEquals(WindowManagerImpl.ADD_OKAY, mPolicy.prepareAddWindowLw(phone.id,
+                phone.statusBar, phone.statusBar.getAttrs()));
+        assertEquals(WindowManagerImpl.ADD_OKAY, mPolicy.prepareAddWindowLw(external.id,
+                external.statusBar, external.statusBar.getAttrs()));
+        assertEquals(WindowManagerImpl.ADD_MULTIPLE_SINGLETON, mPolicy.prepareAddWindowLw(
+                external.id, phone.statusBar, phone.statusBar.getAttrs()));
+    }
+
+    @Test
+    public void theDefaultDisplayIsTheOneWithoutAnId() {
+        final StandInDisplay phone = new StandInDisplay(0, 320, 480);
+        mPolicy.prepareAddWindowLw(phone.statusBar, phone.statusBar.getAttrs());
+        assertEquals(WindowManagerImpl.ADD_MULTIPLE_SINGLETON, mPolicy.prepareAddWindowLw(
+                DisplayLayoutContext.DEFAULT_DISPLAY, phone.statusBar,
+                phone.statusBar.getAttrs()));
+    }
+
+    @Test
+    public void aStatusBarOnlyCoversItsOwnDisplay() {
+        final StandInDisplay phone = new StandInDisplay(0, 320, 480);
+        final StandInDisplay external = new StandInDisplay(1, 800, 600);
+        mPolicy.prepareAddWindowLw(external.id, external.statusBar,
+                external.statusBar.getAttrs());
+
+        phone.layout(mPolicy);
+        external.layout(mPolicy);
+
+        assertEquals(new Rect(0, 0, 320, 480), phone.app.getFrameLw());
+        assertEquals(new Rect(0, STATUS_BAR_HEIGHT, 800, 600), external.app.getFrameLw());
+        assertEquals(new Rect(0, 0, 800, STATUS_BAR_HEIGHT), external.statusBar.getFrameLw());
+    }
+
+    @Test
+    public void coveredInsetsComeFromTheWindowsDisplay() {
+        final StandInDisplay phone = new StandInDisplay(0, 320, 480);
+        final StandInDisplay external = new StandInDisplay(1, 800, 600);
+        mPolicy.prepareAddWindowLw(external.id, external.statusBar,
+                external.statusBar.getAttrs());
+        phone.layout(mPolicy);
+        external.layout(mPolicy);
+
+        assertEquals(new Rect(0, 0, 0, 0), phone.fullscreen.getCoveredInsets());
+        assertEquals(new Rect(0, STATUS_BAR_HEIGHT, 0, 0),
+                external.fullscreen.getCoveredInsets());
+
+        final Rect hint = new Rect(1, 1, 1, 1);
+        mPolicy.getCoveredInsetHintLw(external.id, external.fullscreen.getAttrs(), hint);
+        assertEquals(new Rect(0, STATUS_BAR_HEIGHT, 0, 0), hint);
+    }
+
+    @Test
+    public void displaysThatWereNeverLaidOutHaveNoInsets() {
+        final StandInDisplay unknown = new StandInDisplay(7, 640, 480);
+        final Rect hint = new Rect(1, 1, 1, 1);
+        mPolicy.getCoveredInsetHintLw(unknown.id, unknown.fullscreen.getAttrs(), hint);
+        assertTrue(hint.isEmpty());
+
+        // removing a window from it is harmless
+        mPolicy.removeWindowLw(unknown.id, unknown.statusBar);
+    }
+
+    @Test
+    public void removingADisplayForgetsItsWindows() {
+        final StandInDisplay external = new StandInDisplay(1, 800, 600);
+        mPolicy.prepareAddWindowLw(external.id, external.statusBar,
+                external.statusBar.getAttrs());
+        mPolicy.removeDisplayLw(external.id);
+
+        final StandInDisplay replacement = new StandInDisplay(1, 1024, 768);
+        assertEquals(WindowManagerImpl.ADD_OKAY, mPolicy.prepareAddWindowLw(replacement.id,
+                replacement.statusBar, replacement.statusBar.getAttrs()));
+        replacement.layout(mPolicy);
+        assertEquals(new Rect(0, STATUS_BAR_HEIGHT, 1024, 768), replacement.app.getFrameLw());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void theDefaultDisplayCantBeRemoved() {
+        mPolicy.removeDisplayLw(DisplayLayoutContext.DEFAULT_DISPLAY);
+    }
+
+    @Test
+    public void displaysCanBeLaidOutAtTheSameTime() throws Throwable {
+        final StandInDisplay[] displays = {
+            new StandInDisplay(1, 800, 600),
+            new StandInDisplay(2, 1280, 720),
+        };
+        for (StandInDisplay display : displays) {
+            mPolicy.prepareAddWindowLw(display.id, display.statusBar,
+                    display.statusBar.getAttrs());
+        }
+        final Throwable[] failure = new Throwable[1];
+        final Thread[] threads = new Thread[displays.length];
+        for (int i = 0; i < displays.length; i++) {
+            final StandInDisplay display = displays[i];
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    final Rect expected = new Rect(0, STATUS_BAR_HEIGHT,
+                            display.width, display.height);
+                    try {
+                        for (int pass = 0; pass < 10000; pass++) {
+                            display.layout(mPolicy);
+                            assertEquals(expected, display.app.getFrameLw());
+                        }
+                    } catch (Throwable t) {
+                        synchronized (failure) {
+                            failure[0] = t;
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.view.Surface;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class OrientationFilterTest {
+    /** The sensor's rate while the device is moving. */
+    private static final int SAMPLE_MS = 20;
+
+    private static final int TIME_CONSTANT_MS = 200;
+    private static final int HYSTERESIS = 10;
+    private static final int SETTLE_MS = 300;
+
+    /** A recorded trace: the time and angle of each sample. */
+    private final ArrayList<int[]> mTrace = new ArrayList<int[]>();
+
+    /** Add samples at <var>angle</var> from <var>fromMs</var> until <var>toMs</var>. */
+    private void hold(int angle, int fromMs, int toMs) {
+        for (int t = fromMs; t < toMs; t += SAMPLE_MS) {
+            mTrace.add(new int[] { t, angle });
+        }
+    }
+
+    /** Add samples alternating between two angles. */
+    private void jitter(int angle1, int angle2, int fromMs, int toMs) {
+        for (int t = fromMs; t < toMs; t += SAMPLE_MS) {
+            mTrace.add(new int[] { t, ((t - fromMs) / SAMPLE_MS) % 2 == 0 ? angle1 : angle2 });
+        }
+    }
+
+    /**
+     * @return The rotations <var>filter</var> reported for the trace, each
+     *   as "rotation@time".
+     */
+    private List<String> replay(OrientationFilter filter) {
+        final ArrayList<String> rotations = new ArrayList<String>();
+        for (int[] sample : mTrace) {
+            final int rotation = filter.onSample(sample[1], sample[0]);
+            if (rotation >= 0) {
+                rotations.add(rotation + "@" + sample[0]);
+            }
+        }
+        return rotations;
+    }
+
+    @Test
+    public void jitterAtTheBoundaryIsIgnored() {
+        hold(0, 0, 500);
+        // either side of the 315 degree boundary between portrait and landscape
+        jitter(322, 308, 500, 3000);
+        final OrientationFilter filter =
+                new OrientationFilter(TIME_CONSTANT_MS, HYSTERESIS, SETTLE_MS);
+
+        assertEquals(Arrays.asList(Surface.ROTATION_0 + "@0"), replay(filter));
+        assertEquals(150, filter.getSamples());
+        assertEquals(1, filter.getTransitions());
+        assertEquals(0, filter.getSuppressed());
+    }
+
+    @Test
+    public void withoutHysteresisTheSettleTimeSuppressesTheFlaps() {
+        hold(0, 0, 500);
+        jitter(322, 308, 500, 3000);
+        final OrientationFilter filter = new OrientationFilter(TIME_CONSTANT_MS, 0, SETTLE_MS);
+
+        assertEquals(Arrays.asList(Surface.ROTATION_0 + "@0"), replay(filter));
+        assertEquals(150, filter.getSamples());
+        assertEquals(1, filter.getTransitions());
+        assertTrue(filter.getSuppressed() > 0);
+    }
+
+    @Test
+    public void aGenuineRotationIsReportedOnceItSettles() {
+        hold(0, 0, 500);
+        hold(270, 500, 2000);
+        final OrientationFilter filter =
+                new OrientationFilter(TIME_CONSTANT_MS, HYSTERESIS, SETTLE_MS);
+
+        final List<String> rotations = replay(filter);
+        assertEquals(2, rotations.size());
+        assertEquals(Surface.ROTATION_0 + "@0", rotations.get(0));
+        assertTrue(rotations.get(1), rotations.get(1).startsWith(Surface.ROTATION_90 + "@"));
+        // the smoothed angle takes a while to get past the hysteresis band,
+        // then the new rotation has to settle
+        final int reportedAt = Integer.parseInt(rotations.get(1).substring(2));
+        assertTrue(reportedAt >= 500 + SETTLE_MS);
+        assertTrue(reportedAt < 500 + SETTLE_MS + 4 * TIME_CONSTANT_MS);
+        assertEquals(Surface.ROTATION_90, filter.getRotation());
+        assertEquals(270, filter.getAngle());
+        assertEquals(100, filter.getSamples());
+        assertEquals(2, filter.getTransitions());
+        assertEquals(0, filter.getSuppressed());
+    }
+
+    @Test
+    public void aNewRotationIsOnlyReportedAfterTheSettleTime() {
+        hold(0, 0, 1000);
+        hold(270, 1000, 2000);
+        // no smoothing, so the rotation changes on the sample where the angle does
+        final OrientationFilter filter = new OrientationFilter(0, HYSTERESIS, SETTLE_MS);
+
+        assertEquals(Arrays.asList(Surface.ROTATION_0 + "@0",
+                Surface.ROTATION_90 + "@" + (1000 + SETTLE_MS)), replay(filter));
+        assertEquals(100, filter.getSamples());
+        assertEquals(2, filter.getTransitions());
+        assertEquals(0, filter.getSuppressed());
+    }
+
+    @Test
+    public void aRotationThatDoesNotSettleIsSuppressed() {
+        hold(0, 0, 1000);
+        hold(270, 1000, 1000 + SETTLE_MS - SAMPLE_MS);
+        hold(0, 1000 + SETTLE_MS - SAMPLE_MS, 2000);
+        final OrientationFilter filter = new OrientationFilter(0, HYSTERESIS, SETTLE_MS);
+
+        assertEquals(Arrays.asList(Surface.ROTATION_0 + "@0"), replay(filter));
+        assertEquals(Surface.ROTATION_0, filter.getRotation());
+        assertEquals(100, filter.getSamples());
+        assertEquals(1, filter.getTransitions());
+        assertEquals(1, filter.getSuppressed());
+    }
+}
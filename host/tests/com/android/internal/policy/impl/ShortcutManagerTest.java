@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.KeyEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ShortcutManagerTest {
+    private HostContext mContext;
+
+    @Before
+    public void setUp() {
+        HostPolicy.prepareLooper();
+        mContext = new HostContext();
+    }
+
+    private void addBookmark(long id, char shortcut, String intentUri) {
+        mContext.getBookmarks().addRow(new Object[] {
+            Long.valueOf(id), Integer.valueOf(shortcut), intentUri
+        });
+    }
+
+    /**
+     * @return A manager that has loaded the bookmarks, once the shortcut
+     *   on <var>loadedKey</var> can be looked up.
+     */
+    private ShortcutManager observe(int loadedKey) throws InterruptedException {
+        final ShortcutManager shortcuts = new ShortcutManager(mContext, new Handler());
+        shortcuts.observe();
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (shortcuts.getIntent(loadedKey, 0) == null) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("bookmarks never loaded");
+            }
+            Thread.sleep(1);
+        }
+        return shortcuts;
+    }
+
+    @Test
+    public void looksUpTheShortcutCharacter() throws InterruptedException {
+        addBookmark(1, 'a', "content://a");
+        addBookmark(2, 'b', "content://b");
+        final ShortcutManager shortcuts = observe(KeyEvent.KEYCODE_A);
+        assertEquals("content://b",
+                shortcuts.getIntent(KeyEvent.KEYCODE_B, 0).getData().toString());
+        assertNull(shortcuts.getIntent(KeyEvent.KEYCODE_C, 0));
+    }
+
+    @Test
+    public void shiftedKeysFallBackToTheirPrimaryCharacter() throws InterruptedException {
+        addBookmark(1, 'a', "content://a");
+        final ShortcutManager shortcuts = observe(KeyEvent.KEYCODE_A);
+        assertEquals("content://a", shortcuts.getIntent(KeyEvent.KEYCODE_A,
+                KeyEvent.META_SHIFT_ON).getData().toString());
+    }
+
+    @Test
+    public void invalidRowsDontHideValidOnes() throws InterruptedException {
+        addBookmark(1, 'a', "content://a");
+        addBookmark(2, 'a', "");
+        addBookmark(3, 'b', "content://b");
+        final ShortcutManager shortcuts = observe(KeyEvent.KEYCODE_B);
+        final Intent intent = shortcuts.getIntent(KeyEvent.KEYCODE_A, 0);
+        assertEquals("content://a", intent.getData().toString());
+    }
+
+    @Test
+    public void reloadsPickUpChangedRows() throws InterruptedException {
+        addBookmark(1, 'a', "content://a");
+        final ShortcutManager shortcuts = observe(KeyEvent.KEYCODE_A);
+
+        mContext.getBookmarks().clearRows();
+        addBookmark(1, 'a', "content://changed");
+        addBookmark(2, 'b', "content://b");
+        mContext.getBookmarks().notifyChange();
+        Looper.myLooper().runPending();
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (shortcuts.getIntent(KeyEvent.KEYCODE_B, 0) == null) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("bookmarks never reloaded");
+            }
+            Thread.sleep(1);
+        }
+        assertEquals("content://changed",
+                shortcuts.getIntent(KeyEvent.KEYCODE_A, 0).getData().toString());
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.os.IBinder;
+import android.os.RemoteException;
+import android.os.ServiceManager;
+import android.util.Log;
+
+/**
+ * Holds on to the interface for a system service so that it only has to be
+ * looked up through the {@link ServiceManager} once.  The cached proxy is
+ * dropped when the process hosting the service dies, and is looked up again
+ * the next time it is asked for.
+ *
+ * Counts of cache hits, misses (lookups through the service manager) and
+ * rebinds (successful lookups after the service had died) are kept for
+ * debugging.
+ */
+abstract class CachedServiceHandle<T> implements IBinder.DeathRecipient {
+    private static final String TAG = "CachedServiceHandle";
+
+    private final String mName;
+
+    // these are protected by synchronized (this)
+    private T mService;
+    private boolean mEverBound;
+    private int mHits;
+    private int mMisses;
+    private int mRebinds;
+
+    CachedServiceHandle(String name) {
+        mName = name;
+    }
+
+    /**
+     * Convert the raw binder for the service into its interface, usually by
+     * calling the generated <code>Stub.asInterface</code>.
+     */
+    protected abstract T asInterface(IBinder binder);
+
+    /**
+     * @return The interface for the service, or null if it isn't running.
+     */
+    public synchronized T get() {
+        if (mService != null) {
+            mHits++;
+            return mService;
+        }
+        mMisses++;
+        final IBinder binder = ServiceManager.checkService(mName);
+        if (binder == null) {
+            return null;
+        }
+        try {
+            binder.linkToDeath(this, 0);
+        } catch (RemoteException e) {
+            // died between the lookup and now; the next call will try again
+            Log.w(TAG, "Service " + mName + " died before it could be cached");
+            return null;
+        }
+        if (mEverBound) {
+            mRebinds++;
+        }
+        mEverBound = true;
+        mService = asInterface(binder);
+        return mService;
+    }
+
+    /** {@inheritDoc} */
+    public void binderDied() {
+        synchronized (this) {
+            // The binder is already dead, so there is no link to undo.
+            Log.w(TAG, "Service " + mName + " died, dropping cached interface");
+            mService = null;
+        }
+    }
+
+    public String getName() {
+        return mName;
+    }
+
+    public synchronized int getHitCount() {
+        return mHits;
+    }
+
+    public synchronized int getMissCount() {
+        return mMisses;
+    }
+
+    public synchronized int getRebindCount() {
+        return mRebinds;
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.os.SystemClock;
+
+/**
+ * Matches the key chords the policy intercepts, such as Search+key for
+ * shortcuts or Shift+Menu for bug reports.
+ *
+ * A chord is zero or more keys that are held down, followed by a key that
+ * completes it, with an optional set of meta keys.  Chords are kept in a trie
+ * keyed by keycode; as each key goes down the matcher follows one edge from
+ * the keys currently held, so the cost of a key doesn't grow with the number
+ * of chords.  The last key of a chord may be {@link #ANY_KEY}, which matches
+ * any key that no more specific chord claims.
+ *
+ * When the held keys match a chord and a key could also complete a chord
+ * from the root (for example Shift+Menu while Search is held), the longer
+ * chord is tried first.
+ *
+ * Only used on the input dispatch thread.
+ */
+class ChordMatcher {
+    /** Completes a chord with whatever key is pressed. */
+    static final int ANY_KEY = -1;
+
+    /** The deepest chain of held keys that is tracked. */
+    private static final int MAX_DEPTH = 4;
+
+    /**
+     * Run when a chord is completed.
+     */
+    interface Action {
+        /**
+         * @param keyCode The key that completed the chord.
+         * @return Whether the chord was handled.  If so, the completing key is
+         *   consumed, as are the up events of the held keys; if not, the
+         *   matcher goes on looking for another chord.
+         */
+        boolean onChord(int keyCode, int metaKeys, boolean keyguardOn);
+    }
+
+    private static final class Chord {
+        final int metaMask;
+        final long timeoutMs;
+        final Action action;
+        Chord next;
+
+        Chord(int metaMask, long timeoutMs, Action action) {
+            this.metaMask = metaMask;
+            this.timeoutMs = timeoutMs;
+            this.action = action;
+        }
+    }
+
+    private static final class Node {
+        /** Indexed by keycode, null until the node has a child. */
+        Node[] children;
+        Node wildcard;
+        /** Chords completed by the key leading to this node, in order added. */
+        Chord chords;
+
+        Node child(int keyCode) {
+            final Node[] c = children;
+            final Node node = (c != null && keyCode >= 0 && keyCode < c.length)
+                    ? c[keyCode] : null;
+            return node != null ? node : wildcard;
+        }
+
+        boolean isPrefix() {
+            return children != null || wildcard != null;
+        }
+    }
+
+    private final Node mRoot = new Node();
+
+    // The chain of held keys; mPath[0] is the root.
+    private final Node[] mPath = new Node[MAX_DEPTH + 1];
+    private final int[] mPathKeys = new int[MAX_DEPTH + 1];
+    private final long[] mPathDownTimes = new long[MAX_DEPTH + 1];
+    private final boolean[] mConsumeUp = new boolean[MAX_DEPTH + 1];
+    private int mDepth;
+
+    // Keys that were held by a handled chord when the matcher was reset;
+    // their up events are still consumed if they come.
+    private final int[] mOrphanUps = new int[MAX_DEPTH];
+    private int mOrphanUpCount;
+
+    ChordMatcher() {
+        mPath[0] = mRoot;
+    }
+
+    /**
+     * Add a chord.
+     *
+     * @param keys The keys held, in order, followed by the key that completes
+     *   the chord, which may be {@link #ANY_KEY}.
+     * @param metaMask The meta state bits that must all be set.
+     * @param timeoutMs How soon after the last held key went down the chord
+     *   must be completed, or 0 for as long as the keys are held.
+     */
+    void addChord(int[] keys, int metaMask, long timeoutMs, Action action) {
+        if (keys.length == 0 || keys.length > MAX_DEPTH + 1) {
+            throw new IllegalArgumentException("chord must have 1 to "
+                    + (MAX_DEPTH + 1) + " keys");
+        }
+        Node node = mRoot;
+        for (int i = 0; i < keys.length; i++) {
+            final int keyCode = keys[i];
+            if (keyCode == ANY_KEY) {
+                if (i != keys.length - 1) {
+                    throw new IllegalArgumentException("only the last key may be ANY_KEY");
+                }
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                if (keyCode < 0) {
+                    throw new IllegalArgumentException("bad keycode " + keyCode);
+                }
+                Node[] children = node.children;
+                if (children == null || keyCode >= children.length) {
+                    final Node[] grown = new Node[keyCode + 1];
+                    if (children != null) {
+                        System.arraycopy(children, 0, grown, 0, children.length);
+                    }
+                    node.children = children = grown;
+                }
+                if (children[keyCode] == null) {
+                    children[keyCode] = new Node();
+                }
+                node = children[keyCode];
+            }
+        }
+
+        final Chord chord = new Chord(metaMask, timeoutMs, action);
+        if (node.chords == null) {
+            node.chords = chord;
+        } else {
+            Chord last = node.chords;
+            while (last.next != null) last = last.next;
+            last.next = chord;
+        }
+    }
+
+    /**
+     * @return Whether the matcher needs to see this key: either some keys of
+     *   a chord are held, or the key could start or complete one.
+     */
+    boolean isTracking(int keyCode) {
+        if (mDepth > 0 || mOrphanUpCount > 0) {
+            return true;
+        }
+        final Node[] children = mRoot.children;
+        return (children != null && keyCode >= 0 && keyCode < children.length
+                && children[keyCode] != null) || mRoot.wildcard != null;
+    }
+
+    /**
+     * Process a key.
+     *
+     * @return Whether the key should be consumed.
+     */
+    boolean onKeyTi(int keyCode, int metaKeys, boolean down, int repeatCount,
+            boolean keyguardOn) {
+        if (!down) {
+            return keyUp(keyCode);
+        }
+        if (repeatCount != 0) {
+            return false;
+        }
+        // A new press means any up we were waiting for was lost.
+        removeOrphanUp(keyCode);
+
+        final long now = SystemClock.uptimeMillis();
+        final Node current = mPath[mDepth];
+        final Node next = current.child(keyCode);
+        if (next != null && fire(next, mDepth, keyCode, metaKeys, keyguardOn, now)) {
+            return true;
+        }
+        if (current != mRoot) {
+            final Node single = mRoot.child(keyCode);
+            if (single != null && single != next
+                    && fire(single, 0, keyCode, metaKeys, keyguardOn, now)) {
+                return true;
+            }
+        }
+
+        if (next != null && next.isPrefix() && mDepth < MAX_DEPTH) {
+            mDepth++;
+            mPath[mDepth] = next;
+            mPathKeys[mDepth] = keyCode;
+            mPathDownTimes[mDepth] = now;
+            mConsumeUp[mDepth] = false;
+        }
+        return false;
+    }
+
+    /**
+     * Try the chords completed at <var>node</var>, which was reached from the
+     * keys held at <var>depth</var>.
+     */
+    private boolean fire(Node node, int depth, int keyCode, int metaKeys, boolean keyguardOn,
+            long now) {
+        for (Chord chord = node.chords; chord != null; chord = chord.next) {
+            if ((metaKeys & chord.metaMask) != chord.metaMask) {
+                continue;
+            }
+            if (chord.timeoutMs > 0 && depth > 0
+                    && now - mPathDownTimes[depth] > chord.timeoutMs) {
+                continue;
+            }
+            if (chord.action.onChord(keyCode, metaKeys, keyguardOn)) {
+                for (int i = 1; i <= depth; i++) {
+                    mConsumeUp[i] = true;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean keyUp(int keyCode) {
+        for (int i = mDepth; i > 0; i--) {
+            if (mPathKeys[i] == keyCode) {
+                final boolean consume = mConsumeUp[i];
+                // Releasing a held key ends every chord built on it.
+                for (int j = i; j <= mDepth; j++) {
+                    mPath[j] = null;
+                }
+                mDepth = i - 1;
+                return consume;
+            }
+        }
+        return removeOrphanUp(keyCode);
+    }
+
+    private boolean removeOrphanUp(int keyCode) {
+        for (int i = 0; i < mOrphanUpCount; i++) {
+            if (mOrphanUps[i] == keyCode) {
+                mOrphanUps[i] = mOrphanUps[--mOrphanUpCount];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forget the held keys, for example when dispatching moves elsewhere or
+     * their up events may have been lost.  The up events of keys held by a
+     * chord that was handled are still consumed if they arrive, since a
+     * chord that launches something usually moves the focus.
+     */
+    void reset() {
+        for (int i = 1; i <= mDepth; i++) {
+            if (mConsumeUp[i] && mOrphanUpCount < mOrphanUps.length) {
+                removeOrphanUp(mPathKeys[i]);
+                mOrphanUps[mOrphanUpCount++] = mPathKeys[i];
+            }
+            mPath[i] = null;
+        }
+        mDepth = 0;
+    }
+}
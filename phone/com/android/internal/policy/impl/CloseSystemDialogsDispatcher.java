@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+
+import java.util.ArrayList;
+
+/**
+ * Sends {@link Intent#ACTION_CLOSE_SYSTEM_DIALOGS} on behalf of the policy.
+ *
+ * Dialogs that live in the policy (see {@link Listener}) are told directly,
+ * on the policy's looper, for every request.  The broadcast for everyone
+ * else is held for {@link #COALESCE_DELAY_MS} so that requests that come in
+ * together (for example the keyguard showing while home is launched) go out
+ * as one broadcast.  Only requests with the same reason are merged; one
+ * broadcast goes out for each distinct reason, in the order the reasons were
+ * first asked for, so dialogs that look at the reason still see it.
+ *
+ * The broadcast carries {@link #EXTRA_FROM_POLICY} so that listeners that
+ * also register a receiver, to hear about requests from other senders, can
+ * ignore the ones they have already been told about.
+ */
+class CloseSystemDialogsDispatcher {
+    /**
+     * Boolean extra set on broadcasts sent from here.
+     */
+    static final String EXTRA_FROM_POLICY = "fromPolicy";
+
+    private static final int COALESCE_DELAY_MS = 20;
+
+    private static final int MSG_NOTIFY_LISTENERS = 1;
+    private static final int MSG_BROADCAST = 2;
+
+    /**
+     * Implemented by dialogs in the policy that close on
+     * {@link Intent#ACTION_CLOSE_SYSTEM_DIALOGS}.
+     */
+    interface Listener {
+        /**
+         * Called on the policy's looper.
+         * @param reason The reason given for the request, possibly null.
+         */
+        void onCloseSystemDialogs(String reason);
+    }
+
+    private final Context mContext;
+    private final Intent mIntent = new Intent(Intent.ACTION_CLOSE_SYSTEM_DIALOGS);
+
+    /** Only used on the handler's looper. */
+    private final ArrayList<Listener> mListeners = new ArrayList<Listener>();
+
+    // these are protected by synchronized (this)
+    private final ArrayList<String> mPendingReasons = new ArrayList<String>();
+
+    private final Handler mHandler;
+
+    CloseSystemDialogsDispatcher(Context context, Looper looper) {
+        mContext = context;
+        mIntent.putExtra(EXTRA_FROM_POLICY, true);
+        mHandler = new Handler(looper) {
+            @Override
+            public void handleMessage(Message msg) {
+                switch (msg.what) {
+                    case MSG_NOTIFY_LISTENERS:
+                        notifyListeners((String) msg.obj);
+                        break;
+                    case MSG_BROADCAST:
+                        sendPendingBroadcast();
+                        break;
+                }
+            }
+        };
+    }
+
+    /**
+     * Must be called on the looper passed to the constructor.
+     */
+    void addListener(Listener listener) {
+        if (!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+    }
+
+    /**
+     * Ask system dialogs to close.  May be called from any thread.
+     * @param reason The reason to give, or null.
+     */
+    void closeSystemDialogs(String reason) {
+        if (Looper.myLooper() == mHandler.getLooper()) {
+            notifyListeners(reason);
+        } else {
+            mHandler.sendMessage(mHandler.obtainMessage(MSG_NOTIFY_LISTENERS, reason));
+        }
+
+        synchronized (this) {
+            if (mPendingReasons.isEmpty()) {
+                mHandler.sendEmptyMessageDelayed(MSG_BROADCAST, COALESCE_DELAY_MS);
+            }
+            if (!mPendingReasons.contains(reason)) {
+                mPendingReasons.add(reason);
+            }
+        }
+    }
+
+    private void notifyListeners(String reason) {
+        final ArrayList<Listener> listeners = mListeners;
+        for (int i = 0, N = listeners.size(); i < N; i++) {
+            listeners.get(i).onCloseSystemDialogs(reason);
+        }
+    }
+
+    private void sendPendingBroadcast() {
+        final String[] reasons;
+        synchronized (this) {
+            if (mPendingReasons.isEmpty()) {
+                return;
+            }
+            reasons = mPendingReasons.toArray(new String[mPendingReasons.size()]);
+            mPendingReasons.clear();
+        }
+        for (String reason : reasons) {
+            if (reason != null) {
+                mIntent.putExtra(PhoneWindowManager.SYSTEM_DIALOG_REASON_KEY, reason);
+            } else {
+                mIntent.removeExtra(PhoneWindowManager.SYSTEM_DIALOG_REASON_KEY);
+            }
+            mContext.sendBroadcast(mIntent);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.view.WindowManager;
+import android.view.WindowManagerImpl;
+import android.view.WindowManagerPolicy.WindowState;
+
+/**
+ * The layout state the policy keeps for one display: its size, the part of
+ * it left for application windows once the decor is placed, and the windows
+ * of which there may only be one per display.
+ *
+ * Each display is laid out with its own context, so layouts of different
+ * displays share nothing but the policy's configuration.  A context is only
+ * used by one layout at a time.
+ */
+class DisplayLayoutContext {
+    /** The id of the display the policy has always laid out. */
+    static final int DEFAULT_DISPLAY = 0;
+
+    final int displayId;
+
+    // The display size, and the rect left by the status bar, for the
+    // current layout pass.
+    int w, h;
+    int curLeft, curTop, curRight, curBottom;
+
+    WindowState statusBar;
+    WindowState searchBar;
+    WindowState keyguard;
+
+    /** Non-null when incremental layout is turned on. */
+    final LayoutCache layoutCache;
+
+    DisplayLayoutContext(int displayId, boolean incrementalLayout) {
+        this.displayId = displayId;
+        layoutCache = incrementalLayout ? new LayoutCache() : null;
+    }
+
+    /**
+     * Start a layout pass, with the whole display available.
+     */
+    void beginLayout(int displayWidth, int displayHeight) {
+        w = displayWidth;
+        h = displayHeight;
+        curLeft = 0;
+        curTop = 0;
+        curRight = displayWidth;
+        curBottom = displayHeight;
+    }
+
+    /**
+     * Register <var>win</var> if it is one of the singleton window types.
+     *
+     * @return {@link WindowManagerImpl#ADD_OKAY}, or
+     *   {@link WindowManagerImpl#ADD_MULTIPLE_SINGLETON} if this display
+     *   already has a window of that type.
+     */
+    int addWindow(WindowState win, WindowManager.LayoutParams attrs) {
+        switch (attrs.type) {
+            case WindowManager.LayoutParams.TYPE_STATUS_BAR:
+                if (statusBar != null) {
+                    return WindowManagerImpl.ADD_MULTIPLE_SINGLETON;
+                }
+                statusBar = win;
+                break;
+            case WindowManager.LayoutParams.TYPE_SEARCH_BAR:
+                if (searchBar != null) {
+                    return WindowManagerImpl.ADD_MULTIPLE_SINGLETON;
+                }
+                searchBar = win;
+                break;
+            case WindowManager.LayoutParams.TYPE_KEYGUARD:
+                if (keyguard != null) {
+                    return WindowManagerImpl.ADD_MULTIPLE_SINGLETON;
+                }
+                keyguard = win;
+                break;
+        }
+        return WindowManagerImpl.ADD_OKAY;
+    }
+
+    void removeWindow(WindowState win) {
+        if (layoutCache != null) {
+            layoutCache.remove(win);
+        }
+        if (statusBar == win) {
+            statusBar = null;
+        }
+        else if (searchBar == win) {
+            searchBar = null;
+        }
+        else if (keyguard == win) {
+            keyguard = null;
+        }
+    }
+}
@@ -47,7 +47,8 @@ import java.util.ArrayList;
  * may show depending on whether the keyguard is showing, and whether the device
  * is provisioned.
  */
-class GlobalActions implements DialogInterface.OnDismissListener, DialogInterface.OnClickListener  {
+class GlobalActions implements DialogInterface.OnDismissListener, DialogInterface.OnClickListener,
+        CloseSystemDialogsDispatcher.Listener {
 
     private StatusBarManager mStatusBar;
 
@@ -393,14 +394,24 @@ class GlobalActions implements DialogInterface.OnDismissListener, DialogInterfac
         public void onReceive(Context context, Intent intent) {
             String action = intent.getAction();
             if (Intent.ACTION_CLOSE_SYSTEM_DIALOGS.equals(action)) {
-                String reason = intent.getStringExtra(PhoneWindowManager.SYSTEM_DIALOG_REASON_KEY);
-                if (! PhoneWindowManager.SYSTEM_DIALOG_REASON_GLOBAL_ACTIONS.equals(reason)) {
-                    mHandler.sendEmptyMessage(MESSAGE_DISMISS);
+                // the policy tells us about its own requests directly
+                if (intent.getBooleanExtra(
+                        CloseSystemDialogsDispatcher.EXTRA_FROM_POLICY, false)) {
+                    return;
                 }
+                onCloseSystemDialogs(
+                        intent.getStringExtra(PhoneWindowManager.SYSTEM_DIALOG_REASON_KEY));
             }
         }
     };
 
+    /** {@inheritDoc} */
+    public void onCloseSystemDialogs(String reason) {
+        if (! PhoneWindowManager.SYSTEM_DIALOG_REASON_GLOBAL_ACTIONS.equals(reason)) {
+            mHandler.sendEmptyMessage(MESSAGE_DISMISS);
+        }
+    }
+
     private static final int MESSAGE_DISMISS = 0;
     private Handler mHandler = new Handler() {
         public void handleMessage(Message msg) {
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Message;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.RawInputEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the input events seen by the policy to a compact binary trace, so
+ * that they can be fed back through a policy later with
+ * {@link InputEventReplayer}.
+ *
+ * The trace is a header followed by one record per call.  Records are
+ * gathered in memory on the calling thread and each full buffer is handed to
+ * a background thread to write, so the input threads never touch the file
+ * and a long capture never has to be held in memory.  If the writer falls
+ * more than {@link #MAX_PENDING_BYTES} behind, recording stops rather than
+ * leaving a gap in the trace.  Every record starts with its kind, the uptime at which the
+ * policy saw it and a byte of state flags ({@link #STATE_SCREEN_ON},
+ * {@link #STATE_KEYGUARD_SHOWING}):
+ * <ul>
+ * <li>{@link #RECORD_PREPROCESS} and {@link #RECORD_KEY_TQ} are followed by
+ * the fields of the {@link RawInputEvent}: when, deviceId, type, scancode,
+ * keycode, flags and value.</li>
+ * <li>{@link #RECORD_KEY_TI} is followed by the type of the focused window
+ * (or -1), the keycode, the meta state, a down byte and the repeat
+ * count.</li>
+ * </ul>
+ *
+ * Recording is turned on by setting the {@link #TRACE_PROPERTY} system
+ * property to the path of the file to write before the policy starts.
+ */
+class InputEventRecorder {
+    private static final String TAG = "InputEventRecorder";
+
+    /** System property naming the file to record to. */
+    static final String TRACE_PROPERTY = "debug.policy.input_trace";
+
+    static final int MAGIC = 0x50574954; // 'PWIT'
+    static final int VERSION = 1;
+
+    static final int RECORD_PREPROCESS = 1;
+    static final int RECORD_KEY_TQ = 2;
+    static final int RECORD_KEY_TI = 3;
+
+    static final int STATE_SCREEN_ON = 0x1;
+    static final int STATE_KEYGUARD_SHOWING = 0x2;
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_PENDING_BYTES = 256 * 1024;
+
+    private static final int MSG_WRITE = 1;
+    private static final int MSG_CLOSE = 2;
+
+    /** Only used on the writer thread. */
+    private OutputStream mFile;
+    private final Handler mWriter;
+
+    // these are protected by synchronized (this); Tq and Ti calls come from
+    // different threads
+    private final ByteArrayOutputStream mBuffer = new ByteArrayOutputStream(BUFFER_SIZE);
+    private DataOutputStream mOut;
+    /** Bytes handed to the writer that it hasn't written yet. */
+    private int mPendingBytes;
+
+    /**
+     * @return A recorder writing to <var>path</var>, or null if the file
+     *   couldn't be opened.
+     */
+    static InputEventRecorder open(String path) {
+        try {
+            return new InputEventRecorder(new FileOutputStream(path));
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to open input trace " + path, e);
+            return null;
+        }
+    }
+
+    InputEventRecorder(OutputStream out) throws IOException {
+        mFile = out;
+        HandlerThread thread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        mWriter = new Handler(thread.getLooper()) {
+            @Override
+            public void handleMessage(Message msg) {
+                switch (msg.what) {
+                    case MSG_WRITE:
+                        write((byte[]) msg.obj);
+                        break;
+                    case MSG_CLOSE:
+                        closeFile();
+                        getLooper().quit();
+                        break;
+                }
+            }
+        };
+        mOut = new DataOutputStream(mBuffer);
+        mOut.writeInt(MAGIC);
+        mOut.writeInt(VERSION);
+    }
+
+    void recordPreprocessTq(RawInputEvent event, boolean screenOn, boolean keyguardShowing) {
+        recordRawEvent(RECORD_PREPROCESS, event, screenOn, keyguardShowing);
+    }
+
+    void recordKeyTq(RawInputEvent event, boolean screenOn, boolean keyguardShowing) {
+        recordRawEvent(RECORD_KEY_TQ, event, screenOn, keyguardShowing);
+    }
+
+    synchronized void recordKeyTi(int windowType, int code, int metaKeys, boolean down,
+            int repeatCount, boolean screenOn, boolean keyguardShowing) {
+        if (mOut == null) {
+            return;
+        }
+        try {
+            writeHeader(RECORD_KEY_TI, screenOn, keyguardShowing);
+            mOut.writeInt(windowType);
+            mOut.writeInt(code);
+            mOut.writeInt(metaKeys);
+            mOut.writeByte(down ? 1 : 0);
+            mOut.writeInt(repeatCount);
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        handOffIfFull();
+    }
+
+    private synchronized void recordRawEvent(int kind, RawInputEvent event,
+            boolean screenOn, boolean keyguardShowing) {
+        if (mOut == null) {
+            return;
+        }
+        try {
+            writeHeader(kind, screenOn, keyguardShowing);
+            mOut.writeLong(event.when);
+            mOut.writeInt(event.deviceId);
+            mOut.writeInt(event.type);
+            mOut.writeInt(event.scancode);
+            mOut.writeInt(event.keycode);
+            mOut.writeInt(event.flags);
+            mOut.writeInt(event.value);
+        } catch (IOException e) {
+            fail(e);
+            return;
+        }
+        handOffIfFull();
+    }
+
+    private void writeHeader(int kind, boolean screenOn, boolean keyguardShowing)
+            throws IOException {
+        mOut.writeByte(kind);
+        mOut.writeLong(SystemClock.uptimeMillis());
+        mOut.writeByte((screenOn ? STATE_SCREEN_ON : 0)
+                | (keyguardShowing ? STATE_KEYGUARD_SHOWING : 0));
+    }
+
+    private void handOffIfFull() {
+        if (mBuffer.size() >= BUFFER_SIZE) {
+            handOff();
+        }
+    }
+
+    /**
+     * Give the buffered records to the writer thread.
+     */
+    private void handOff() {
+        if (mBuffer.size() == 0) {
+            return;
+        }
+        if (mPendingBytes + mBuffer.size() > MAX_PENDING_BYTES) {
+            Log.w(TAG, "Input trace writer fell behind, stopping");
+            close();
+            return;
+        }
+        final byte[] chunk = mBuffer.toByteArray();
+        mBuffer.reset();
+        mPendingBytes += chunk.length;
+        mWriter.sendMessage(mWriter.obtainMessage(MSG_WRITE, chunk));
+    }
+
+    /**
+     * Hand buffered records to the writer thread to go out to the file.
+     */
+    synchronized void flush() {
+        if (mOut == null) {
+            return;
+        }
+        handOff();
+    }
+
+    /**
+     * Stop recording.  Buffered records are still written.
+     */
+    synchronized void close() {
+        if (mOut == null) {
+            return;
+        }
+        if (mPendingBytes + mBuffer.size() <= MAX_PENDING_BYTES) {
+            handOff();
+        }
+        mBuffer.reset();
+        mOut = null;
+        mWriter.sendEmptyMessage(MSG_CLOSE);
+    }
+
+    private void fail(IOException e) {
+        Log.w(TAG, "Unable to write input trace, stopping", e);
+        close();
+    }
+
+    /**
+     * Runs on the writer thread.
+     */
+    private void write(byte[] chunk) {
+        synchronized (this) {
+            mPendingBytes -= chunk.length;
+        }
+        if (mFile == null) {
+            return;
+        }
+        try {
+            mFile.write(chunk);
+        } catch (IOException e) {
+            Log.w(TAG, "Unable to write input trace, stopping", e);
+            closeFile();
+            synchronized (this) {
+                mOut = null;
+            }
+        }
+    }
+
+    /**
+     * Runs on the writer thread.
+     */
+    private void closeFile() {
+        if (mFile == null) {
+            return;
+        }
+        try {
+            mFile.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+        mFile = null;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.view.RawInputEvent;
+import android.view.WindowManagerPolicy;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Feeds a trace written by {@link InputEventRecorder} back through a
+ * {@link WindowManagerPolicy}, as fast as the policy will take it.
+ *
+ * Records are read one at a time, so traces of any length can be replayed.
+ * The recorded screen state is passed to
+ * {@link WindowManagerPolicy#interceptKeyTq}; the recorded keyguard state is
+ * reported in {@link Callback#onRecord} for the caller to check against, but
+ * can't be forced on the policy.  {@link WindowManagerPolicy#interceptKeyTi}
+ * is called without a focused window.
+ */
+class InputEventReplayer {
+    /**
+     * Told about every record after it has been passed to the policy.
+     */
+    interface Callback {
+        /**
+         * @param kind One of the InputEventRecorder.RECORD_* constants.
+         * @param recordedTime The uptime at which the policy originally saw it.
+         * @param state The InputEventRecorder.STATE_* flags at the time.
+         * @param result What the policy returned: the action flags for
+         *   interceptKeyTq, 1 or 0 for the boolean methods.
+         */
+        void onRecord(int kind, long recordedTime, int state, int result);
+    }
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final DataInputStream mIn;
+    private final RawInputEvent mEvent = new RawInputEvent();
+
+    InputEventReplayer(InputStream in) throws IOException {
+        mIn = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        if (mIn.readInt() != InputEventRecorder.MAGIC) {
+            throw new IOException("Not an input trace");
+        }
+        final int version = mIn.readInt();
+        if (version != InputEventRecorder.VERSION) {
+            throw new IOException("Unsupported input trace version " + version);
+        }
+    }
+
+    /**
+     * Replay the rest of the trace through <var>policy</var>.
+     *
+     * @param callback Told about each record, may be null.
+     * @return The number of records replayed.
+     */
+    int replay(WindowManagerPolicy policy, Callback callback) throws IOException {
+        final DataInputStream in = mIn;
+        final RawInputEvent event = mEvent;
+        int count = 0;
+        while (true) {
+            final int kind;
+            try {
+                kind = in.readByte();
+            } catch (EOFException e) {
+                break;
+            }
+            final long recordedTime = in.readLong();
+            final int state = in.readByte();
+            final boolean screenOn = (state & InputEventRecorder.STATE_SCREEN_ON) != 0;
+            int result;
+            switch (kind) {
+                case InputEventRecorder.RECORD_PREPROCESS:
+                    readRawEvent(in, event);
+                    result = policy.preprocessInputEventTq(event) ? 1 : 0;
+                    break;
+                case InputEventRecorder.RECORD_KEY_TQ:
+                    readRawEvent(in, event);
+                    result = policy.interceptKeyTq(event, screenOn);
+                    break;
+                case InputEventRecorder.RECORD_KEY_TI: {
+                    in.readInt(); // window type, informational only
+                    final int code = in.readInt();
+                    final int metaKeys = in.readInt();
+                    final boolean down = in.readByte() != 0;
+                    final int repeatCount = in.readInt();
+                    result = policy.interceptKeyTi(null, code, metaKeys, down, repeatCount)
+                            ? 1 : 0;
+                    break;
+                }
+                default:
+                    throw new IOException("Corrupt input trace: record kind " + kind);
+            }
+            count++;
+            if (callback != null) {
+                callback.onRecord(kind, recordedTime, state, result);
+            }
+        }
+        return count;
+    }
+
+    private static void readRawEvent(DataInputStream in, RawInputEvent event)
+            throws IOException {
+        event.when = in.readLong();
+        event.deviceId = in.readInt();
+        event.type = in.readInt();
+        event.scancode = in.readInt();
+        event.keycode = in.readInt();
+        event.flags = in.readInt();
+        event.value = in.readInt();
+    }
+
+    void close() {
+        try {
+            mIn.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.view.KeyEvent;
+import android.view.RawInputEvent;
+
+/**
+ * Precomputed classification of keycodes for the screen-off input path, so
+ * that deciding what a key does while the device is asleep is a table load
+ * and a bit test rather than a switch.
+ *
+ * The classes depend only on the keycode.  Whether a particular key on a
+ * particular device wakes the device is still decided by the wake flags the
+ * key layout put on the event; see {@link PhoneWindowManager#isWakeKeyTq}.
+ */
+final class KeyClassifier {
+    /** The key always wakes the device, whatever its layout flags say. */
+    static final int FORCE_WAKE = 0x1;
+    /** The key should turn the screen on when it wakes the keyguard. */
+    static final int WAKE_WHEN_KEYGUARD = 0x2;
+    /** The key is a media button. */
+    static final int MEDIA = 0x4;
+    /** The key is a volume key. */
+    static final int VOLUME = 0x8;
+
+    /** Classes of keycodes past the end of the table. */
+    private static final int DEFAULT_CLASSES = WAKE_WHEN_KEYGUARD;
+
+    private static final byte[] sClasses = buildTable();
+
+    private KeyClassifier() {
+    }
+
+    private static byte[] buildTable() {
+        // There are not key maps for trackball devices, but we'd still
+        // like to have pressing it wake the device up, so it is in here too.
+        final byte[] table = new byte[RawInputEvent.BTN_MOUSE + 1];
+        for (int i = 0; i < table.length; i++) {
+            table[i] = DEFAULT_CLASSES;
+        }
+        table[KeyEvent.KEYCODE_VOLUME_UP] = VOLUME;
+        table[KeyEvent.KEYCODE_VOLUME_DOWN] = VOLUME;
+        table[KeyEvent.KEYCODE_HEADSETHOOK] = MEDIA;
+        table[KeyEvent.KEYCODE_CAMERA] = 0;
+        table[RawInputEvent.BTN_MOUSE] |= FORCE_WAKE;
+        return table;
+    }
+
+    /**
+     * @return The classes of <var>keyCode</var>, a combination of
+     *   {@link #FORCE_WAKE}, {@link #WAKE_WHEN_KEYGUARD}, {@link #MEDIA} and
+     *   {@link #VOLUME}.
+     */
+    static int classify(int keyCode) {
+        final byte[] table = sClasses;
+        return (keyCode >= 0 && keyCode < table.length) ? table[keyCode] : DEFAULT_CLASSES;
+    }
+
+    static boolean is(int keyCode, int keyClass) {
+        return (classify(keyCode) & keyClass) != 0;
+    }
+}
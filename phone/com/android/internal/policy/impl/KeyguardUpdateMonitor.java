@@ -82,6 +82,8 @@ public class KeyguardUpdateMonitor {
             = Lists.newArrayList();
     private ArrayList<InfoCallback> mInfoCallbacks = Lists.newArrayList();
     private ArrayList<SimStateCallback> mSimStateCallbacks = Lists.newArrayList();
+    private ArrayList<DeviceProvisionedCallback> mDeviceProvisionedCallbacks
+            = Lists.newArrayList();
     private ContentObserver mContentObserver;
     
 
@@ -176,6 +178,9 @@ public class KeyguardUpdateMonitor {
                         // We don't need the observer anymore...
                         mContext.getContentResolver().unregisterContentObserver(mContentObserver);
                         mContentObserver = null;
+                        for (int i = 0; i < mDeviceProvisionedCallbacks.size(); i++) {
+                            mDeviceProvisionedCallbacks.get(i).onDeviceProvisioned();
+                        }
                     }
                     if (DEBUG) Log.d(TAG, "DEVICE_PROVISIONED state = " + mDeviceProvisioned);
                 }
@@ -425,12 +430,13 @@ public class KeyguardUpdateMonitor {
      * Remove the given observer from being registered from any of the kinds
      * of callbacks.
      * @param observer The observer to remove (an instance of {@link ConfigurationChangeCallback},
-     *   {@link InfoCallback} or {@link SimStateCallback}
+     *   {@link InfoCallback}, {@link SimStateCallback} or {@link DeviceProvisionedCallback}
      */
     public void removeCallback(Object observer) {
         mConfigurationChangeCallbacks.remove(observer);
         mInfoCallbacks.remove(observer);
         mSimStateCallbacks.remove(observer);
+        mDeviceProvisionedCallbacks.remove(observer);
     }
 
     /**
@@ -464,6 +470,13 @@ public class KeyguardUpdateMonitor {
         void onSimStateChanged(SimCard.State simState);
     }
 
+    /**
+     * Callback to notify that the device has been provisioned.
+     */
+    interface DeviceProvisionedCallback {
+        void onDeviceProvisioned();
+    }
+
     /**
      * Register to receive notifications about configuration changes.
      * @param callback The callback.
@@ -489,6 +502,14 @@ public class KeyguardUpdateMonitor {
         mSimStateCallbacks.add(callback);
     }
 
+    /**
+     * Register to be notified when the device becomes provisioned.
+     * @param callback The callback.
+     */
+    public void registerDeviceProvisionedCallback(DeviceProvisionedCallback callback) {
+        mDeviceProvisionedCallbacks.add(callback);
+    }
+
     public SimCard.State getSimState() {
         return mSimState;
     }
@@ -17,7 +17,6 @@
 package com.android.internal.policy.impl;
 
 import android.content.Context;
-import android.content.Intent;
 import android.media.AudioManager;
 import android.view.KeyEvent;
 import android.view.View;
@@ -132,9 +131,7 @@ public abstract class KeyguardViewBase extends FrameLayout {
         if (event.getAction() == KeyEvent.ACTION_DOWN) {
             switch (keyCode) {
                 case KeyEvent.KEYCODE_HEADSETHOOK: {
-                    Intent intent = new Intent(Intent.ACTION_MEDIA_BUTTON, null);
-                    intent.putExtra(Intent.EXTRA_KEY_EVENT, event);
-                    getContext().sendOrderedBroadcast(intent, null);
+                    MediaButtonDispatcher.broadcast(getContext(), event);
                     return true;
                 }
 
@@ -162,9 +159,7 @@ public abstract class KeyguardViewBase extends FrameLayout {
         } else if (event.getAction() == KeyEvent.ACTION_UP) {
             switch (keyCode) {
                 case KeyEvent.KEYCODE_HEADSETHOOK: {
-                    Intent intent = new Intent(Intent.ACTION_MEDIA_BUTTON, null);
-                    intent.putExtra(Intent.EXTRA_KEY_EVENT, event);
-                    getContext().sendOrderedBroadcast(intent, null);
+                    MediaButtonDispatcher.broadcast(getContext(), event);
                     return true;
                 }
             }
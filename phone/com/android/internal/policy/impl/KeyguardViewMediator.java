@@ -33,7 +33,6 @@ import android.os.SystemClock;
 import android.util.Config;
 import android.util.Log;
 import android.util.EventLog;
-import android.view.KeyEvent;
 import android.view.WindowManagerImpl;
 import android.view.WindowManagerPolicy;
 import com.android.internal.telephony.SimCard;
@@ -82,7 +81,8 @@ import com.android.internal.widget.LockPatternUtils;
  * thread of the keyguard.
  */
 public class KeyguardViewMediator implements KeyguardViewCallback,
-        KeyguardUpdateMonitor.ConfigurationChangeCallback, KeyguardUpdateMonitor.SimStateCallback {
+        KeyguardUpdateMonitor.ConfigurationChangeCallback, KeyguardUpdateMonitor.SimStateCallback,
+        KeyguardUpdateMonitor.DeviceProvisionedCallback {
     private final static boolean DEBUG = false && Config.LOGD;
     private final static boolean DBG_WAKE = DEBUG || true;
 
@@ -207,6 +207,31 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
      */
     private boolean mWaitingUntilKeyguardVisible = false;
 
+    /**
+     * The parts of our state that the input thread asks about for every key,
+     * see {@link #isShowing()} and {@link #isInputRestricted()}, with a
+     * version, see {@link #getStateVersion()}.
+     */
+    private static final class KeyguardState {
+        /** Incremented each time a new state is published. */
+        final int version;
+        final boolean showing;
+        final boolean inputRestricted;
+
+        KeyguardState(int version, boolean showing, boolean inputRestricted) {
+            this.version = version;
+            this.showing = showing;
+            this.inputRestricted = inputRestricted;
+        }
+    }
+
+    /**
+     * Replaced, never modified, by {@link #publishStateLocked()} whenever
+     * {@link #mShowing}, {@link #mNeedToReshowWhenReenabled} or the provisioned
+     * state changes, so readers get a consistent view without taking our lock.
+     */
+    private volatile KeyguardState mPublishedState = new KeyguardState(0, false, false);
+
     public KeyguardViewMediator(Context context, PhoneWindowManager callback,
             LocalPowerManager powerManager) {
         mContext = context;
@@ -236,6 +261,10 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
 
         mUpdateMonitor.registerConfigurationChangeCallback(this);
         mUpdateMonitor.registerSimStateCallback(this);
+        mUpdateMonitor.registerDeviceProvisionedCallback(this);
+        synchronized (this) {
+            publishStateLocked();
+        }
 
         mKeyguardViewProperties =
                 new LockPatternKeyguardViewProperties(
@@ -331,6 +360,7 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
                 if (DEBUG) Log.d(TAG, "remembering to reshow, hiding keyguard, "
                         + "disabling status bar expansion");
                 mNeedToReshowWhenReenabled = true;
+                publishStateLocked();
                 setStatusBarExpandable(false);
                 hideLocked();
             } else if (enabled && mNeedToReshowWhenReenabled) {
@@ -338,6 +368,7 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
                 if (DEBUG) Log.d(TAG, "previously hidden, reshowing, reenabling "
                         + "status bar expansion");
                 mNeedToReshowWhenReenabled = false;
+                publishStateLocked();
                 setStatusBarExpandable(true);
 
                 if (mExitSecureCallback != null) {
@@ -406,7 +437,7 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
      * Is the keyguard currently showing?
      */
     public boolean isShowing() {
-        return mShowing;
+        return mPublishedState.showing;
     }
 
     /**
@@ -415,7 +446,28 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
      * was suppressed by an app that disabled the keyguard or we haven't been provisioned yet.
      */
     public boolean isInputRestricted() {
-        return mShowing || mNeedToReshowWhenReenabled || !mUpdateMonitor.isDeviceProvisioned();
+        return mPublishedState.inputRestricted;
+    }
+
+    /**
+     * The version of the keyguard state that {@link #isShowing()} and
+     * {@link #isInputRestricted()} report, which changes whenever either of
+     * them might have.  A caller that asked both can compare the version
+     * from before and after to know the answers belong together.
+     */
+    public int getStateVersion() {
+        return mPublishedState.version;
+    }
+
+    /**
+     * Publish a new {@link KeyguardState} after a change to any of the fields
+     * it is made from.
+     */
+    private void publishStateLocked() {
+        final boolean inputRestricted = mShowing || mNeedToReshowWhenReenabled
+                || !mUpdateMonitor.isDeviceProvisioned();
+        mPublishedState = new KeyguardState(mPublishedState.version + 1, mShowing,
+                inputRestricted);
     }
 
 
@@ -589,6 +641,13 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
         }
     }
 
+    /** {@inheritDoc} */
+    public void onDeviceProvisioned() {
+        synchronized (this) {
+            publishStateLocked();
+        }
+    }
+
     private BroadcastReceiver mBroadCastReceiver = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
@@ -635,14 +694,8 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
     }
 
     private boolean isWakeKeyWhenKeyguardShowing(int keyCode) {
-        switch (keyCode) {
-            case KeyEvent.KEYCODE_VOLUME_UP:
-            case KeyEvent.KEYCODE_VOLUME_DOWN:
-            case KeyEvent.KEYCODE_HEADSETHOOK:
-            case KeyEvent.KEYCODE_CAMERA:
-                return false;
-        }
-        return true;
+        // volume, headset hook and camera keys don't turn the screen on
+        return KeyClassifier.is(keyCode, KeyClassifier.WAKE_WHEN_KEYGUARD);
     }
 
     /**
@@ -692,6 +745,7 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
                     // the keyguard when they've released the lock
                     mExternallyEnabled = true;
                     mNeedToReshowWhenReenabled = false;
+                    publishStateLocked();
                     setStatusBarExpandable(true);
                 }
             }
@@ -717,6 +771,17 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
     private Handler mHandler = new Handler() {
         @Override
         public void handleMessage(Message msg)
+        {
+            final LatencyStats stats = mCallback.getLatencyStats();
+            final long start = stats.start();
+            try {
+                handleKeyguardMessage(msg);
+            } finally {
+                stats.end(LatencyStats.KEYGUARD_MESSAGE, start);
+            }
+        }
+
+        private void handleKeyguardMessage(Message msg)
         {
             switch (msg.what)
             {
@@ -813,6 +878,7 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
             mCallback.onKeyguardShow();
             mKeyguardViewManager.show();
             mShowing = true;
+            publishStateLocked();
         }
     }
 
@@ -826,8 +892,10 @@ public class KeyguardViewMediator implements KeyguardViewCallback,
             // When we go away, tell the poewr manager to honor requests from userActivity.
             mRealPowerManager.enableUserActivity(true);
 
+            mCallback.onKeyguardHide();
             mKeyguardViewManager.hide();
             mShowing = false;
+            publishStateLocked();
         }
     }
 
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import java.io.PrintWriter;
+
+/**
+ * Call counts and latency histograms for the policy's hot paths.
+ *
+ * Each instrumented method has a fixed set of buckets in a preallocated
+ * array, so recording a sample is a few array writes and never allocates.
+ * Samples are recorded without locking; each method is normally called from
+ * a single thread, and an occasional lost count from a race doesn't matter
+ * for these numbers.
+ *
+ * Usage:
+ * <pre>
+ * final long start = mStats.start();
+ * try {
+ *     ...
+ * } finally {
+ *     mStats.end(LatencyStats.INTERCEPT_KEY_TQ, start);
+ * }
+ * </pre>
+ */
+class LatencyStats {
+    /** Set to false to compile out all recording. */
+    static final boolean ENABLED = true;
+
+    static final int INTERCEPT_KEY_TQ = 0;
+    static final int INTERCEPT_KEY_TI = 1;
+    static final int LAYOUT_WINDOW = 2;
+    static final int FINISH_ANIMATION = 3;
+    static final int KEYGUARD_MESSAGE = 4;
+    static final int ADD_STARTING_WINDOW = 5;
+    static final int NUM_METHODS = 6;
+
+    private static final String[] METHOD_NAMES = {
+        "interceptKeyTq",
+        "interceptKeyTi",
+        "layoutWindowLw",
+        "finishAnimationLw",
+        "KeyguardViewMediator.handleMessage",
+        "addStartingWindow",
+    };
+
+    /**
+     * Upper bound, in microseconds, of each bucket but the last, which
+     * holds everything slower.
+     */
+    private static final int[] BUCKET_LIMITS_US = {
+        1, 2, 5, 10, 20, 50, 100, 200, 500,
+        1000, 2000, 5000, 10000, 20000, 50000, 100000,
+    };
+    private static final int NUM_BUCKETS = BUCKET_LIMITS_US.length + 1;
+
+    private static final int[] PERCENTILES = { 50, 90, 99 };
+
+    private final long[] mBuckets = new long[NUM_METHODS * NUM_BUCKETS];
+    private final long[] mCalls = new long[NUM_METHODS];
+    private final long[] mTotalNanos = new long[NUM_METHODS];
+    private final long[] mMaxNanos = new long[NUM_METHODS];
+
+    /**
+     * @return The start time to pass to {@link #end}.
+     */
+    long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record a call that began at <var>start</var> and is ending now.
+     * @param method One of the method constants, such as {@link #INTERCEPT_KEY_TQ}.
+     * @param start The value returned by {@link #start}.
+     */
+    void end(int method, long start) {
+        if (ENABLED) {
+            record(method, System.nanoTime() - start);
+        }
+    }
+
+    private void record(int method, long nanos) {
+        final int micros = (int) Math.min(nanos / 1000, Integer.MAX_VALUE);
+        final int[] limits = BUCKET_LIMITS_US;
+        int bucket = 0;
+        while (bucket < limits.length && micros > limits[bucket]) {
+            bucket++;
+        }
+        mBuckets[method * NUM_BUCKETS + bucket]++;
+        mCalls[method]++;
+        mTotalNanos[method] += nanos;
+        if (nanos > mMaxNanos[method]) {
+            mMaxNanos[method] = nanos;
+        }
+    }
+
+    /**
+     * @return The upper bound in microseconds of the bucket holding the given
+     *   percentile of calls to <var>method</var>, or -1 if it falls in the
+     *   last, unbounded bucket.
+     */
+    private int percentile(int method, int percent) {
+        final long calls = mCalls[method];
+        final long target = (calls * percent + 99) / 100;
+        long seen = 0;
+        final int base = method * NUM_BUCKETS;
+        for (int i = 0; i < BUCKET_LIMITS_US.length; i++) {
+            seen += mBuckets[base + i];
+            if (seen >= target) {
+                return BUCKET_LIMITS_US[i];
+            }
+        }
+        return -1;
+    }
+
+    void dump(String prefix, PrintWriter pw) {
+        if (!ENABLED) {
+            pw.print(prefix); pw.println("latency stats disabled");
+            return;
+        }
+        for (int method = 0; method < NUM_METHODS; method++) {
+            final long calls = mCalls[method];
+            pw.print(prefix); pw.print(METHOD_NAMES[method]);
+            pw.print(": calls="); pw.print(calls);
+            if (calls > 0) {
+                pw.print(" avg="); pw.print(mTotalNanos[method] / calls / 1000);
+                pw.print("us");
+                for (int p : PERCENTILES) {
+                    final int limit = percentile(method, p);
+                    pw.print(" p"); pw.print(p); pw.print(limit >= 0 ? "<=" : ">");
+                    pw.print(limit >= 0 ? limit : BUCKET_LIMITS_US[BUCKET_LIMITS_US.length - 1]);
+                    pw.print("us");
+                }
+                pw.print(" max="); pw.print(mMaxNanos[method] / 1000); pw.print("us");
+            }
+            pw.println();
+        }
+    }
+}
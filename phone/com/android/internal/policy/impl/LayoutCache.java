@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.view.WindowManager;
+import android.view.WindowManagerPolicy.WindowState;
+
+import java.io.PrintWriter;
+import java.util.HashMap;
+
+/**
+ * Remembers what the policy last passed to each window's
+ * {@link WindowState#computeFrameLw}, so that a layout pass can skip windows
+ * whose frame can't have changed.
+ *
+ * A window is skipped if nothing its frame is computed from has changed:
+ * the parent and display rects, the covered insets and the layout
+ * attributes that place it.  Only windows that fill their parent both ways
+ * are cached.  The size of any other window comes from the size its client
+ * asked for in its last relayout, which the policy never sees and which can
+ * change without the attributes changing, so those windows are always
+ * recomputed.
+ *
+ * Turned on by setting the {@link #PROPERTY} system property to 1.  Only used
+ * with the window manager lock held.
+ */
+class LayoutCache {
+    /** System property that turns on incremental layout. */
+    static final String PROPERTY = "debug.policy.incremental_layout";
+
+    private static final int NUM_INPUTS = 12;
+
+    private static final class Entry {
+        final int[] inputs = new int[NUM_INPUTS];
+        int flags;
+        int type;
+        int x;
+        int y;
+        int gravity;
+        float horizontalMargin;
+        float verticalMargin;
+
+        boolean matches(WindowManager.LayoutParams attrs, int[] inputs) {
+            if (flags != attrs.flags || type != attrs.type
+                    || x != attrs.x || y != attrs.y || gravity != attrs.gravity
+                    || horizontalMargin != attrs.horizontalMargin
+                    || verticalMargin != attrs.verticalMargin) {
+                return false;
+            }
+            final int[] mine = this.inputs;
+            for (int i = 0; i < NUM_INPUTS; i++) {
+                if (mine[i] != inputs[i]) return false;
+            }
+            return true;
+        }
+
+        void set(WindowManager.LayoutParams attrs, int[] inputs) {
+            flags = attrs.flags;
+            type = attrs.type;
+            x = attrs.x;
+            y = attrs.y;
+            gravity = attrs.gravity;
+            horizontalMargin = attrs.horizontalMargin;
+            verticalMargin = attrs.verticalMargin;
+            System.arraycopy(inputs, 0, this.inputs, 0, NUM_INPUTS);
+        }
+    }
+
+    private final HashMap<WindowState, Entry> mEntries = new HashMap<WindowState, Entry>();
+    private final int[] mInputs = new int[NUM_INPUTS];
+
+    private long mComputed;
+    private long mSkipped;
+
+    /**
+     * Record the inputs to a window's layout.
+     *
+     * @return Whether the window must be laid out, because it isn't cached or
+     *   something it depends on has changed since it was last laid out.
+     */
+    boolean needsLayout(WindowState win, WindowManager.LayoutParams attrs,
+            int insetLeft, int insetTop, int insetRight, int insetBottom,
+            int pl, int pt, int pr, int pb, int dl, int dt, int dr, int db) {
+        if (attrs.width != WindowManager.LayoutParams.FILL_PARENT
+                || attrs.height != WindowManager.LayoutParams.FILL_PARENT) {
+            mEntries.remove(win);
+            mComputed++;
+            return true;
+        }
+
+        final int[] inputs = mInputs;
+        inputs[0] = insetLeft;
+        inputs[1] = insetTop;
+        inputs[2] = insetRight;
+        inputs[3] = insetBottom;
+        inputs[4] = pl;
+        inputs[5] = pt;
+        inputs[6] = pr;
+        inputs[7] = pb;
+        inputs[8] = dl;
+        inputs[9] = dt;
+        inputs[10] = dr;
+        inputs[11] = db;
+
+        Entry entry = mEntries.get(win);
+        if (entry != null && entry.matches(attrs, inputs)) {
+            mSkipped++;
+            return false;
+        }
+        if (entry == null) {
+            entry = new Entry();
+            mEntries.put(win, entry);
+        }
+        entry.set(attrs, inputs);
+        mComputed++;
+        return true;
+    }
+
+    /**
+     * Forget a window that has been removed.
+     */
+    void remove(WindowState win) {
+        mEntries.remove(win);
+    }
+
+    void dump(String prefix, PrintWriter pw) {
+        pw.print(prefix); pw.print("windows="); pw.print(mEntries.size());
+                pw.print(" computed="); pw.print(mComputed);
+                pw.print(" skipped="); pw.println(mSkipped);
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+
+/**
+ * Times long presses of system keys with a single handler, keyed by keycode.
+ *
+ * Each key that may be timed gets a press record when the timer is created;
+ * pressing a key fills in its record and sends one message whose
+ * <code>what</code> is the keycode.  If the message is delivered before the
+ * key is released, the key's {@link KeyAction#onLongPress} runs on the
+ * timer's looper; if the key is released first,
+ * {@link KeyAction#onShortPress} runs on the releasing thread.
+ *
+ * The methods may be called from any thread.
+ */
+class LongPressTimer {
+
+    /**
+     * What to do when a timed key is released early or held long enough.
+     */
+    static abstract class KeyAction {
+        /**
+         * The key was released before the long press timeout.
+         * @param arg The argument passed to {@link LongPressTimer#keyDown}.
+         */
+        void onShortPress(int keyCode, Object arg) {
+        }
+
+        /**
+         * The key has been held for the long press timeout.
+         * @param arg The argument passed to {@link LongPressTimer#keyDown}.
+         */
+        abstract void onLongPress(int keyCode, Object arg);
+    }
+
+    private static final class PressRecord {
+        KeyAction action;
+        Object arg;
+    }
+
+    // protected by synchronized (this)
+    private final PressRecord[] mRecords;
+
+    private final Handler mHandler;
+
+    /**
+     * @param looper The looper to run long press actions on.
+     * @param keyCodes The keys that may be timed.
+     */
+    LongPressTimer(Looper looper, int... keyCodes) {
+        int max = 0;
+        for (int keyCode : keyCodes) {
+            if (keyCode > max) max = keyCode;
+        }
+        mRecords = new PressRecord[max + 1];
+        for (int keyCode : keyCodes) {
+            mRecords[keyCode] = new PressRecord();
+        }
+        mHandler = new Handler(looper) {
+            @Override
+            public void handleMessage(Message msg) {
+                onTimeout(msg.what);
+            }
+        };
+    }
+
+    private PressRecord getRecord(int keyCode) {
+        final PressRecord record = keyCode >= 0 && keyCode < mRecords.length
+                ? mRecords[keyCode] : null;
+        if (record == null) {
+            throw new IllegalArgumentException("keycode " + keyCode + " is not timed");
+        }
+        return record;
+    }
+
+    /**
+     * Start timing a press of <var>keyCode</var>, replacing any press of the
+     * same key that is still being timed.
+     *
+     * @param action What to do when the press ends.
+     * @param arg Passed back to the action.
+     * @param timeoutMs How long the key must be held to be a long press.
+     */
+    void keyDown(int keyCode, KeyAction action, Object arg, long timeoutMs) {
+        synchronized (this) {
+            final PressRecord record = getRecord(keyCode);
+            mHandler.removeMessages(keyCode);
+            record.action = action;
+            record.arg = arg;
+            mHandler.sendEmptyMessageDelayed(keyCode, timeoutMs);
+        }
+    }
+
+    /**
+     * Stop timing a press of <var>keyCode</var> by <var>action</var>, and run
+     * its short press if the long press hadn't happened yet.
+     *
+     * @return Whether this was a short press.
+     */
+    boolean keyUp(int keyCode, KeyAction action) {
+        final Object arg;
+        synchronized (this) {
+            final PressRecord record = getRecord(keyCode);
+            if (record.action != action || action == null) {
+                return false;
+            }
+            mHandler.removeMessages(keyCode);
+            arg = record.arg;
+            record.action = null;
+            record.arg = null;
+        }
+        action.onShortPress(keyCode, arg);
+        return true;
+    }
+
+    /**
+     * Stop timing a press of <var>keyCode</var> without running any action.
+     */
+    void cancel(int keyCode) {
+        synchronized (this) {
+            final PressRecord record = getRecord(keyCode);
+            mHandler.removeMessages(keyCode);
+            record.action = null;
+            record.arg = null;
+        }
+    }
+
+    /**
+     * Stop timing every press that would run <var>action</var>, without
+     * running it.
+     */
+    void cancelAll(KeyAction action) {
+        synchronized (this) {
+            final PressRecord[] records = mRecords;
+            for (int keyCode = 0; keyCode < records.length; keyCode++) {
+                final PressRecord record = records[keyCode];
+                if (record != null && record.action == action) {
+                    mHandler.removeMessages(keyCode);
+                    record.action = null;
+                    record.arg = null;
+                }
+            }
+        }
+    }
+
+    private void onTimeout(int keyCode) {
+        final KeyAction action;
+        final Object arg;
+        synchronized (this) {
+            final PressRecord record = mRecords[keyCode];
+            action = record.action;
+            arg = record.arg;
+            record.action = null;
+            record.arg = null;
+        }
+        if (action != null) {
+            action.onLongPress(keyCode, arg);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.app.Activity;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.PowerManager;
+import android.view.KeyEvent;
+
+/**
+ * Sends {@link Intent#ACTION_MEDIA_BUTTON} broadcasts for the headset hook
+ * without allocating a new Intent (and, from the input thread, a new
+ * runnable) for every press.
+ *
+ * {@link PhoneWindowManager} uses an instance of this to pass headset hook
+ * events on when they won't reach an application; the event is queued from
+ * the input thread and broadcast from the policy's handler.  A single wake
+ * lock is held from the first queued event until the last broadcast of the
+ * burst has been delivered.
+ *
+ * {@link PhoneWindow} and {@link KeyguardViewBase} already have a
+ * {@link KeyEvent} in hand and use {@link #broadcast(Context, KeyEvent)}.
+ */
+class MediaButtonDispatcher {
+    private static final int MAX_POOL_SIZE = 8;
+
+    /** Shared by {@link #broadcast}; protected by synchronized (sIntent). */
+    private static final Intent sIntent = new Intent(Intent.ACTION_MEDIA_BUTTON, null);
+
+    private final Context mContext;
+    private final Handler mHandler;
+    private final PowerManager.WakeLock mWakeLock;
+
+    /** Only used from {@link #mHandler}. */
+    private final Intent mIntent = new Intent(Intent.ACTION_MEDIA_BUTTON, null);
+
+    // these are protected by synchronized (this)
+    private PendingEvent mPool;
+    private int mPoolSize;
+    private int mOutstanding;
+
+    /**
+     * A headset hook event waiting to be broadcast.  Holds the fields of the
+     * event rather than a {@link KeyEvent}, which can't be reused, and goes
+     * back in the pool once it has run.
+     */
+    private final class PendingEvent implements Runnable {
+        PendingEvent mNext;
+        long mWhen;
+        boolean mDown;
+
+        public void run() {
+            final KeyEvent keyEvent = new KeyEvent(mWhen, mWhen,
+                    mDown ? KeyEvent.ACTION_DOWN : KeyEvent.ACTION_UP,
+                    KeyEvent.KEYCODE_HEADSETHOOK, 0);
+            recycle(this);
+            mIntent.putExtra(Intent.EXTRA_KEY_EVENT, keyEvent);
+            mContext.sendOrderedBroadcast(mIntent, null, mBroadcastDone,
+                    mHandler, Activity.RESULT_OK, null, null);
+        }
+    }
+
+    private final BroadcastReceiver mBroadcastDone = new BroadcastReceiver() {
+        public void onReceive(Context context, Intent intent) {
+            synchronized (MediaButtonDispatcher.this) {
+                if (--mOutstanding == 0) {
+                    mWakeLock.release();
+                }
+            }
+        }
+    };
+
+    MediaButtonDispatcher(Context context, Handler handler) {
+        mContext = context;
+        mHandler = handler;
+        PowerManager pm = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        mWakeLock = pm.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK,
+                "MediaButtonDispatcher");
+        mWakeLock.setReferenceCounted(false);
+    }
+
+    /**
+     * Queue a headset hook event to be broadcast from the handler.  Safe to
+     * call from the input thread.
+     *
+     * @param when The time of the event, in the {@link android.os.SystemClock#uptimeMillis}
+     *   time base.
+     * @param down Whether this is the key going down.
+     */
+    void dispatchHeadsetHookTq(long when, boolean down) {
+        final PendingEvent pending;
+        synchronized (this) {
+            if (mOutstanding++ == 0) {
+                mWakeLock.acquire();
+            }
+            if (mPool != null) {
+                pending = mPool;
+                mPool = pending.mNext;
+                pending.mNext = null;
+                mPoolSize--;
+            } else {
+                pending = new PendingEvent();
+            }
+        }
+        pending.mWhen = when;
+        pending.mDown = down;
+        mHandler.post(pending);
+    }
+
+    private void recycle(PendingEvent pending) {
+        synchronized (this) {
+            if (mPoolSize < MAX_POOL_SIZE) {
+                pending.mNext = mPool;
+                mPool = pending;
+                mPoolSize++;
+            }
+        }
+    }
+
+    /**
+     * Broadcast a media button event that an application didn't handle.
+     * @param context The context to send the broadcast from.
+     * @param event The key event, included as {@link Intent#EXTRA_KEY_EVENT}.
+     */
+    static void broadcast(Context context, KeyEvent event) {
+        // the intent is copied by the activity manager before this returns,
+        // so it is safe to reuse it for the next event
+        synchronized (sIntent) {
+            sIntent.putExtra(Intent.EXTRA_KEY_EVENT, event);
+            context.sendOrderedBroadcast(sIntent, null);
+        }
+    }
+}
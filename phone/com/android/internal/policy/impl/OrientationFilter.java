@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.view.Surface;
+
+import java.io.PrintWriter;
+
+/**
+ * Turns the raw angles from the orientation sensor into rotation changes
+ * that are worth telling the window manager about.
+ *
+ * The angle is smoothed with a low-pass filter that handles the wrap at 360.
+ * Portrait is within 45 degrees of 0 and landscape within 45 degrees of 270;
+ * to leave the current rotation the smoothed angle has to be a further
+ * hysteresis band past the boundary, and the new rotation has to hold for
+ * the settle time before it is reported.  Angles in neither range are
+ * ignored.
+ *
+ * Time is passed in with each sample, so a recorded trace can be replayed
+ * through a filter anywhere.  Not thread safe.
+ */
+class OrientationFilter {
+    private static final int PORTRAIT_CENTER = 0;
+    private static final int LANDSCAPE_CENTER = 270;
+    private static final int HALF_RANGE = 45;
+
+    private final long mTimeConstantMs;
+    private final int mHysteresis;
+    private final long mSettleTimeMs;
+
+    /** The smoothed angle, or -1 before the first sample. */
+    private float mEstimate = -1;
+    private long mLastSampleTime;
+
+    /** The rotation last reported, or -1. */
+    private int mRotation = -1;
+    /** The rotation waiting to settle, or -1. */
+    private int mPending = -1;
+    private long mPendingSince;
+    /** How far the last sample was from the smoothed angle before it. */
+    private float mLastDeviation;
+
+    private long mSamples;
+    private long mTransitions;
+    private long mSuppressed;
+
+    /**
+     * @param timeConstantMs Time constant of the low-pass filter.
+     * @param hysteresisDegrees How far past a boundary the angle must go to
+     *   change rotation.
+     * @param settleTimeMs How long a new rotation must hold before it is
+     *   reported.
+     */
+    OrientationFilter(long timeConstantMs, int hysteresisDegrees, long settleTimeMs) {
+        mTimeConstantMs = timeConstantMs;
+        mHysteresis = hysteresisDegrees;
+        mSettleTimeMs = settleTimeMs;
+    }
+
+    /**
+     * Forget the angle and any pending change, for example because the
+     * sensor has been off.  The last reported rotation is kept.
+     */
+    void reset() {
+        mEstimate = -1;
+        mLastDeviation = 0;
+        if (mPending >= 0) {
+            mSuppressed++;
+            mPending = -1;
+        }
+    }
+
+    /**
+     * @return The rotation last reported, a Surface.ROTATION_* constant, or
+     *   -1 if none has been.
+     */
+    int getRotation() {
+        return mRotation;
+    }
+
+    /**
+     * @return The smoothed angle in degrees, or -1 if there is none.
+     */
+    int getAngle() {
+        return mEstimate < 0 ? -1 : Math.round(mEstimate) % 360;
+    }
+
+    /**
+     * @return How many samples have been added, flat ones included.
+     */
+    long getSamples() {
+        return mSamples;
+    }
+
+    /**
+     * @return How many times a rotation has been reported.
+     */
+    long getTransitions() {
+        return mTransitions;
+    }
+
+    /**
+     * @return How many rotations were dropped before they settled.
+     */
+    long getSuppressed() {
+        return mSuppressed;
+    }
+
+    /**
+     * @return Whether the last sample suggests the device is moving: it was
+     *   more than <var>thresholdDegrees</var> from the smoothed angle, or a
+     *   new rotation is waiting to settle.
+     */
+    boolean isMoving(int thresholdDegrees) {
+        return mPending >= 0 || mLastDeviation > thresholdDegrees;
+    }
+
+    /**
+     * Add a sample.
+     *
+     * @param angle The angle from the sensor, or a negative value if the
+     *   device is flat.
+     * @param now The time of the sample in milliseconds.
+     * @return The new rotation if it has just changed, otherwise -1.
+     */
+    int onSample(int angle, long now) {
+        mSamples++;
+        mLastDeviation = 0;
+        if (angle < 0) {
+            return -1;
+        }
+
+        if (mEstimate < 0) {
+            mEstimate = angle % 360;
+        } else {
+            final long dt = Math.max(0, now - mLastSampleTime);
+            final float alpha = dt / (float) (mTimeConstantMs + dt);
+            float diff = angle - mEstimate;
+            if (diff > 180) diff -= 360;
+            else if (diff < -180) diff += 360;
+            mLastDeviation = Math.abs(diff);
+            mEstimate += alpha * diff;
+            if (mEstimate < 0) mEstimate += 360;
+            else if (mEstimate >= 360) mEstimate -= 360;
+        }
+        mLastSampleTime = now;
+
+        final int candidate = rotationFor(mEstimate, mRotation < 0 ? 0 : mHysteresis);
+        if (candidate < 0 || candidate == mRotation) {
+            if (mPending >= 0) {
+                // It went back before it settled.
+                mSuppressed++;
+                mPending = -1;
+            }
+            return -1;
+        }
+
+        if (candidate != mPending) {
+            if (mPending >= 0) {
+                mSuppressed++;
+            }
+            mPending = candidate;
+            mPendingSince = now;
+        }
+        // Nothing to settle against the first time.
+        if (mRotation >= 0 && now - mPendingSince < mSettleTimeMs) {
+            return -1;
+        }
+
+        mRotation = candidate;
+        mPending = -1;
+        mTransitions++;
+        return candidate;
+    }
+
+    /**
+     * @return The rotation whose range, shrunk by <var>margin</var> degrees
+     *   at each end, contains <var>angle</var>, or -1.
+     */
+    private static int rotationFor(float angle, int margin) {
+        if (distance(angle, PORTRAIT_CENTER) <= HALF_RANGE - margin) {
+            return Surface.ROTATION_0;
+        }
+        if (distance(angle, LANDSCAPE_CENTER) <= HALF_RANGE - margin) {
+            return Surface.ROTATION_90;
+        }
+        return -1;
+    }
+
+    private static float distance(float angle, int center) {
+        final float d = Math.abs(angle - center) % 360;
+        return d > 180 ? 360 - d : d;
+    }
+
+    void dump(String prefix, PrintWriter pw) {
+        pw.print(prefix); pw.print("rotation="); pw.print(mRotation);
+                pw.print(" angle="); pw.print(getAngle());
+                pw.print(" samples="); pw.print(mSamples);
+                pw.print(" transitions="); pw.print(mTransitions);
+                pw.print(" suppressed="); pw.println(mSuppressed);
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+import android.view.OrientationListener;
+
+import java.io.PrintWriter;
+
+/**
+ * Decides when the orientation listener is actually registered.
+ *
+ * While the device is moving the listener runs all the time.  Once the angle
+ * has been steady for {@link #STABLE_MS} the listener is only turned on for
+ * a short burst every {@link #IDLE_SLEEP_MS}; if a burst sees any change
+ * from the steady angle the listener stays on again.  While sampling is paused, for example because
+ * the keyguard is covering the app, the listener is off.
+ *
+ * May be called from any thread.
+ */
+class OrientationSampler {
+    /** How long the angle must be steady before sampling drops to bursts. */
+    static final long STABLE_MS = 3000;
+    /** How long the listener is off between bursts. */
+    static final long IDLE_SLEEP_MS = 200;
+    /** How long each burst lasts. */
+    static final long IDLE_BURST_MS = 400;
+
+    private static final int STATE_OFF = 0;
+    private static final int STATE_FULL = 1;
+    private static final int STATE_IDLE_SLEEP = 2;
+    private static final int STATE_IDLE_BURST = 3;
+
+    private static final String[] STATE_NAMES = { "off", "full", "idle-sleep", "idle-burst" };
+
+    private static final int MSG_BURST = 1;
+    private static final int MSG_SLEEP = 2;
+    private static final int MSG_PAUSE = 3;
+
+    private final OrientationListener mListener;
+    private final Handler mHandler;
+
+    // these are protected by synchronized (this)
+    private boolean mWanted;
+    private boolean mPaused;
+    private int mState = STATE_OFF;
+    private boolean mListening;
+    private long mLastMovement;
+    private long mBursts;
+    private long mWakeups;
+    private long mListeningSince;
+    private long mListeningMs;
+
+    OrientationSampler(Looper looper, OrientationListener listener) {
+        mListener = listener;
+        mHandler = new Handler(looper) {
+            @Override
+            public void handleMessage(Message msg) {
+                switch (msg.what) {
+                    case MSG_BURST:
+                        startBurst();
+                        break;
+                    case MSG_SLEEP:
+                        endBurst();
+                        break;
+                    case MSG_PAUSE:
+                        applyPaused(msg.arg1 != 0);
+                        break;
+                }
+            }
+        };
+    }
+
+    /**
+     * Whether anything wants the sensor: the screen is on and the app in
+     * front rotates with it.
+     */
+    synchronized void setWanted(boolean wanted) {
+        mWanted = wanted;
+        update();
+    }
+
+    /**
+     * Whether sampling should stop for now even though it is wanted.  This
+     * takes effect on the sampler's looper, so that callers holding their
+     * own locks don't register or unregister the sensor under them.
+     */
+    void setPaused(boolean paused) {
+        mHandler.removeMessages(MSG_PAUSE);
+        mHandler.sendMessage(mHandler.obtainMessage(MSG_PAUSE, paused ? 1 : 0, 0));
+    }
+
+    private synchronized void applyPaused(boolean paused) {
+        mPaused = paused;
+        update();
+    }
+
+    private void update() {
+        final boolean on = mWanted && !mPaused;
+        if (!on) {
+            if (mState != STATE_OFF) {
+                setState(STATE_OFF);
+            }
+        } else if (mState == STATE_OFF) {
+            mLastMovement = SystemClock.uptimeMillis();
+            setState(STATE_FULL);
+        }
+    }
+
+    /**
+     * Called for each sample the listener gets.
+     *
+     * @param moving Whether the sample shows the device moving.
+     * @param changed Whether the sample differs at all from the steady
+     *   angle; during a burst this is enough to go back to full rate.
+     */
+    synchronized void onSample(boolean moving, boolean changed) {
+        final long now = SystemClock.uptimeMillis();
+        switch (mState) {
+            case STATE_FULL:
+                if (moving) {
+                    mLastMovement = now;
+                } else if (now - mLastMovement >= STABLE_MS) {
+                    setState(STATE_IDLE_SLEEP);
+                }
+                break;
+            case STATE_IDLE_BURST:
+                if (moving || changed) {
+                    mWakeups++;
+                    mLastMovement = now;
+                    setState(STATE_FULL);
+                }
+                break;
+        }
+    }
+
+    private synchronized void startBurst() {
+        if (mState == STATE_IDLE_SLEEP) {
+            mBursts++;
+            setState(STATE_IDLE_BURST);
+        }
+    }
+
+    private synchronized void endBurst() {
+        if (mState == STATE_IDLE_BURST) {
+            setState(STATE_IDLE_SLEEP);
+        }
+    }
+
+    private void setState(int state) {
+        mState = state;
+        mHandler.removeMessages(MSG_BURST);
+        mHandler.removeMessages(MSG_SLEEP);
+        switch (state) {
+            case STATE_OFF:
+                setListening(false);
+                break;
+            case STATE_FULL:
+                setListening(true);
+                break;
+            case STATE_IDLE_SLEEP:
+                setListening(false);
+                mHandler.sendEmptyMessageDelayed(MSG_BURST, IDLE_SLEEP_MS);
+                break;
+            case STATE_IDLE_BURST:
+                setListening(true);
+                mHandler.sendEmptyMessageDelayed(MSG_SLEEP, IDLE_BURST_MS);
+                break;
+        }
+    }
+
+    private void setListening(boolean listening) {
+        if (listening == mListening) {
+            return;
+        }
+        mListening = listening;
+        final long now = SystemClock.uptimeMillis();
+        if (listening) {
+            mListeningSince = now;
+            mListener.enable();
+        } else {
+            mListeningMs += now - mListeningSince;
+            mListener.disable();
+        }
+    }
+
+    synchronized void dump(String prefix, PrintWriter pw) {
+        long listeningMs = mListeningMs;
+        if (mListening) {
+            listeningMs += SystemClock.uptimeMillis() - mListeningSince;
+        }
+        pw.print(prefix); pw.print("sampling="); pw.print(STATE_NAMES[mState]);
+                pw.print(" paused="); pw.print(mPaused);
+                pw.print(" bursts="); pw.print(mBursts);
+                pw.print(" wakeups="); pw.print(mWakeups);
+                pw.print(" listeningMs="); pw.println(listeningMs);
+    }
+}
@@ -36,8 +36,7 @@ import android.graphics.drawable.Drawable;
 import android.media.AudioManager;
 import android.net.Uri;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Message;
+import android.os.Looper;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.os.SystemClock;
@@ -150,11 +149,30 @@ public class PhoneWindow extends Window implements MenuBuilder.Callback {
     
     private boolean mSearchKeyDownReceived;
     
-    private final Handler mKeycodeCallTimeoutHandler = new Handler() {
+    /**
+     * Times long presses of the call and camera keys.  One is shared by all
+     * the windows on a thread, rather than each window having handlers of
+     * its own.
+     */
+    private static final ThreadLocal<LongPressTimer> sLongPressTimer =
+            new ThreadLocal<LongPressTimer>() {
+        @Override
+        protected LongPressTimer initialValue() {
+            return new LongPressTimer(Looper.myLooper(),
+                    KeyEvent.KEYCODE_CALL, KeyEvent.KEYCODE_CAMERA);
+        }
+    };
+
+    private final LongPressTimer mLongPressTimer = sLongPressTimer.get();
+
+    private final LongPressTimer.KeyAction mCallKeyAction = new LongPressTimer.KeyAction() {
+        @Override
+        void onShortPress(int keyCode, Object arg) {
+            startCallActivity();
+        }
+
         @Override
-        public void handleMessage(Message msg) {
-            if (!mKeycodeCallTimeoutActive) return;
-            mKeycodeCallTimeoutActive = false;
+        void onLongPress(int keyCode, Object arg) {
             // launch the VoiceDialer
             Intent intent = new Intent(Intent.ACTION_VOICE_COMMAND);
             intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
@@ -165,23 +183,18 @@ public class PhoneWindow extends Window implements MenuBuilder.Callback {
             }
         }
     };
-    private boolean mKeycodeCallTimeoutActive = false;
 
-    // Ideally the call and camera buttons would share a common base class, and each implement their
-    // own onShortPress() and onLongPress() methods, but to reduce the chance of regressions I'm
-    // keeping them separate for now.
-    private final Handler mKeycodeCameraTimeoutHandler = new Handler() {
+    private final LongPressTimer.KeyAction mCameraKeyAction = new LongPressTimer.KeyAction() {
+        // Add short press behavior here if desired
+
         @Override
-        public void handleMessage(Message msg) {
-            if (!mKeycodeCameraTimeoutActive) return;
-            mKeycodeCameraTimeoutActive = false;
+        void onLongPress(int keyCode, Object arg) {
             // Broadcast an intent that the Camera button was longpressed
             Intent intent = new Intent(Intent.ACTION_CAMERA_BUTTON, null);
-            intent.putExtra(Intent.EXTRA_KEY_EVENT, (KeyEvent) msg.obj);
+            intent.putExtra(Intent.EXTRA_KEY_EVENT, (KeyEvent) arg);
             getContext().sendOrderedBroadcast(intent, null);
         }
     };
-    private boolean mKeycodeCameraTimeoutActive = false;
 
     public PhoneWindow(Context context) {
         super(context);
@@ -1118,9 +1131,7 @@ public class PhoneWindow extends Window implements MenuBuilder.Callback {
             }
 
             case KeyEvent.KEYCODE_HEADSETHOOK: {
-                Intent intent = new Intent(Intent.ACTION_MEDIA_BUTTON, null);
-                intent.putExtra(Intent.EXTRA_KEY_EVENT, event);
-                getContext().sendOrderedBroadcast(intent, null);
+                MediaButtonDispatcher.broadcast(getContext(), event);
                 return true;
             }
 
@@ -1129,11 +1140,7 @@ public class PhoneWindow extends Window implements MenuBuilder.Callback {
                     break;
                 }
                 if (event.getRepeatCount() > 0) break;
-                mKeycodeCameraTimeoutActive = true;
-                mKeycodeCameraTimeoutHandler.removeMessages(0);
-                Message message = mKeycodeCameraTimeoutHandler.obtainMessage(0);
-                message.obj = event;
-                mKeycodeCameraTimeoutHandler.sendMessageDelayed(message,
+                mLongPressTimer.keyDown(keyCode, mCameraKeyAction, event,
                         ViewConfiguration.getLongPressTimeout());
                 return true;
             }
@@ -1165,10 +1172,7 @@ public class PhoneWindow extends Window implements MenuBuilder.Callback {
                     break;
                 }
                 if (event.getRepeatCount() > 0) break;
-                mKeycodeCallTimeoutActive = true;
-                mKeycodeCallTimeoutHandler.removeMessages(0);
-                mKeycodeCallTimeoutHandler.sendMessageDelayed(
-                        mKeycodeCallTimeoutHandler.obtainMessage(0),
+                mLongPressTimer.keyDown(keyCode, mCallKeyAction, null,
                         ViewConfiguration.getLongPressTimeout());
                 return true;
             }
@@ -1227,9 +1231,7 @@ public class PhoneWindow extends Window implements MenuBuilder.Callback {
             }
 
             case KeyEvent.KEYCODE_HEADSETHOOK: {
-                Intent intent = new Intent(Intent.ACTION_MEDIA_BUTTON, null);
-                intent.putExtra(Intent.EXTRA_KEY_EVENT, event);
-                getContext().sendOrderedBroadcast(intent, null);
+                MediaButtonDispatcher.broadcast(getContext(), event);
                 return true;
             }
 
@@ -1238,10 +1240,7 @@ public class PhoneWindow extends Window implements MenuBuilder.Callback {
                     break;
                 }
                 if (event.getRepeatCount() > 0) break; // Can a key up event repeat?
-                mKeycodeCameraTimeoutHandler.removeMessages(0);
-                if (!mKeycodeCameraTimeoutActive) break;
-                mKeycodeCameraTimeoutActive = false;
-                // Add short press behavior here if desired
+                if (!mLongPressTimer.keyUp(keyCode, mCameraKeyAction)) break;
                 return true;
             }
 
@@ -1250,10 +1249,7 @@ public class PhoneWindow extends Window implements MenuBuilder.Callback {
                     break;
                 }
                 if (event.getRepeatCount() > 0) break;
-                mKeycodeCallTimeoutHandler.removeMessages(0);
-                if (!mKeycodeCallTimeoutActive) break;
-                mKeycodeCallTimeoutActive = false;
-                startCallActivity();
+                if (!mLongPressTimer.keyUp(keyCode, mCallKeyAction)) break;
                 return true;
             }
 
@@ -1828,10 +1824,8 @@ public class PhoneWindow extends Window implements MenuBuilder.Callback {
             super.onWindowFocusChanged(hasWindowFocus);
             
             // no KEYCODE_CALL events active across focus changes
-            mKeycodeCallTimeoutHandler.removeMessages(0);
-            mKeycodeCallTimeoutActive = false;
-            mKeycodeCameraTimeoutHandler.removeMessages(0);
-            mKeycodeCameraTimeoutActive = false;
+            mLongPressTimer.cancelAll(mCallKeyAction);
+            mLongPressTimer.cancelAll(mCameraKeyAction);
 
             // If the user is chording a menu shortcut, release the chord since
             // this window lost focus
@@ -16,11 +16,9 @@
 
 package com.android.internal.policy.impl;
 
-import android.app.Activity;
 import android.app.ActivityManagerNative;
 import android.app.IActivityManager;
 import android.app.IStatusBar;
-import android.content.BroadcastReceiver;
 import android.content.ContentQueryMap;
 import android.content.ContentResolver;
 import android.content.ContentValues;
@@ -33,6 +31,7 @@ import android.content.res.Resources;
 import android.database.Cursor;
 import android.graphics.Rect;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.IBinder;
 import android.os.LocalPowerManager;
 import android.os.PowerManager;
@@ -42,19 +41,23 @@ import android.os.SystemClock;
 import android.os.SystemProperties;
 import android.provider.Settings;
 import static android.provider.Settings.System.END_BUTTON_BEHAVIOR;
+import android.telephony.PhoneStateListener;
+import android.telephony.TelephonyManager;
 
 import com.android.internal.policy.PolicyManager;
 import com.android.internal.telephony.ITelephony;
 import android.util.Config;
 import android.util.EventLog;
 import android.util.Log;
+import android.util.SparseArray;
+import android.view.ContextThemeWrapper;
 import android.view.IWindowManager;
 import android.view.KeyEvent;
 import android.view.MotionEvent;
 import android.view.OrientationListener;
 import android.view.RawInputEvent;
-import android.view.Surface;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.ViewConfiguration;
 import android.view.Window;
 import android.view.WindowManager;
@@ -84,6 +87,7 @@ import android.view.WindowManagerPolicy;
 import android.media.IAudioService;
 import android.media.AudioManager;
 
+import java.io.PrintWriter;
 import java.util.Observable;
 import java.util.Observer;
 
@@ -134,30 +138,31 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     /** If true, hitting shift & menu will broadcast Intent.ACTION_BUG_REPORT */
     private boolean mEnableShiftMenuBugReports = false;
     
-    private WindowState mStatusBar = null;
-    private WindowState mSearchBar = null;
-    private WindowState mKeyguard = null;
+    /** The display laid out by the {@link WindowManagerPolicy} methods. */
+    private DisplayLayoutContext mDefaultDisplay;
+    /** Other displays, by id; see {@link #obtainDisplayLw}. */
+    private final SparseArray<DisplayLayoutContext> mDisplays =
+            new SparseArray<DisplayLayoutContext>();
     private KeyguardViewMediator mKeyguardMediator;
     private GlobalActions mGlobalActions;
     private boolean mShouldTurnOffOnKeyUp;
     private RecentApplicationsDialog mRecentAppsDialog;
     private Handler mHandler;
+    private CloseSystemDialogsDispatcher mCloseSystemDialogs;
+    private LongPressTimer mLongPressTimer;
 
-    private boolean mLidOpen;
-    private int mSensorOrientation = OrientationListener.ORIENTATION_UNKNOWN;
-    private int mSensorRotation = -1;
     private boolean mScreenOn = false;
-    private boolean mOrientationSensorEnabled = false;
-    private int mCurrentAppOrientation = ActivityInfo.SCREEN_ORIENTATION_UNSPECIFIED;
     
-    private int mW, mH;
-    private int mCurLeft, mCurTop, mCurRight, mCurBottom;
     private WindowState mTopFullscreenOpaqueWindowState;
     private boolean mForceStatusBar;
+
+    private static final int STATUS_BAR_UNKNOWN = 0;
+    private static final int STATUS_BAR_SHOWN = 1;
+    private static final int STATUS_BAR_HIDDEN = 2;
+    /** What we last asked of the default display's status bar. */
+    private int mStatusBarState = STATUS_BAR_UNKNOWN;
     private boolean mHomePressed;
     private Intent mHomeIntent;
-    private boolean mSearchKeyPressed;
-    private boolean mConsumeSearchKeyUp;
 
     private static final int ENDCALL_HOME = 0x1;
     private static final int ENDCALL_SLEEPS = 0x2;
@@ -165,7 +170,14 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     private int mEndcallBehavior;
 
     private ShortcutManager mShortcutManager;
+    private final LatencyStats mLatencyStats = new LatencyStats();
+    /** Non-null when input events are being traced; see {@link InputEventRecorder}. */
+    private InputEventRecorder mInputRecorder;
+
+    /** Whether displays keep a {@link LayoutCache}. */
+    private boolean mIncrementalLayout;
     private PowerManager.WakeLock mBroadcastWakeLock;
+    private MediaButtonDispatcher mMediaButtonDispatcher;
 
     private class SettingsObserver implements Observer {
         private ContentQueryMap mSettings;
@@ -209,31 +221,87 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         
         @Override
         public void onOrientationChanged(int orientation) {
-            // ignore orientation changes unless the value is in a range that
-            // matches portrait or landscape
             // portrait range is 270+45 to 359 and 0 to 45
             // landscape range is 270-45 to 270+45
-            if ((orientation >= 0 && orientation <= 45) || (orientation >= 270 - 45)) {
-                mSensorOrientation = orientation;
-                int rotation =  (orientation >= 270 - 45
-                        && orientation <= 270 + 45)
-                        ? Surface.ROTATION_90 : Surface.ROTATION_0;
-                if (rotation != mSensorRotation) {
-                	if(localLOGV) Log.i(TAG, "onOrientationChanged, rotation changed from "+rotation+" to "+mSensorRotation);
-                    // Update window manager.  The lid rotation hasn't changed,
-                    // but we want it to re-evaluate the final rotation in case
-                    // it needs to call back and get the sensor orientation.
-                    mSensorRotation = rotation;
-                    try {
-                        mWindowManager.setRotation(USE_LAST_ROTATION, false);
-                    } catch (RemoteException e) {
-                        // Ignore
-                    }
-                }
+            // The filter ignores anything else, and only reports a rotation
+            // once the angle has settled a little way inside its range.
+            final int rotation = mOrientationFilter.onSample(orientation,
+                    SystemClock.uptimeMillis());
+            final int angle = mOrientationFilter.getAngle();
+            if (angle >= 0) {
+                mRotationState.setSensorAngle(angle);
+            }
+            mOrientationSampler.onSample(rotation >= 0
+                    || mOrientationFilter.isMoving(ORIENTATION_MOVEMENT_DEGREES),
+                    mOrientationFilter.isMoving(ORIENTATION_CHANGE_DEGREES));
+            if (rotation >= 0) {
+                if(localLOGV) Log.i(TAG, "onOrientationChanged, rotation changed to "+rotation);
+                mRotationState.onSensorRotation(rotation);
             }
         }                                      
     }
+
+    /** Time constant of the low-pass filter on the sensor angle. */
+    private static final int ORIENTATION_FILTER_TIME_CONSTANT_MS = 200;
+    /** How far past a boundary the angle must go to rotate, by default. */
+    private static final int DEFAULT_ORIENTATION_HYSTERESIS = 10;
+    /** How long a new rotation must hold before it is used, by default. */
+    private static final int DEFAULT_ORIENTATION_SETTLE_MS = 300;
+    /** How far a sample must be from the smoothed angle to count as movement. */
+    private static final int ORIENTATION_MOVEMENT_DEGREES = 15;
+    /** How far a sample must be from the smoothed angle to end idle sampling. */
+    private static final int ORIENTATION_CHANGE_DEGREES = 5;
+
+    private OrientationFilter mOrientationFilter;
     private MyOrientationListener mOrientationListener;
+    /** Turns mOrientationListener on and off while sensor orientation is in use. */
+    private OrientationSampler mOrientationSampler;
+
+    /** Decides the rotation and keyboard visibility from the lid, sensor and app. */
+    private RotationStateMachine mRotationState;
+
+    private final RotationStateMachine.Callbacks mRotationCallbacks =
+            new RotationStateMachine.Callbacks() {
+        public int readLidSwitch() {
+            try {
+                return mWindowManager.getSwitchState(0);
+            } catch (RemoteException e) {
+                return -1;
+            }
+        }
+
+        public void setKeyboardVisibility(boolean visible) {
+            mPowerManager.setKeyboardVisibility(visible);
+        }
+
+        public void setRotation(int rotation, boolean alwaysSendConfiguration) {
+            try {
+                //set orientation on WindowManager
+                mWindowManager.setRotation(rotation, alwaysSendConfiguration);
+            } catch (RemoteException e) {
+                // Ignore
+            }
+        }
+
+        public void onLidChanged(boolean open) {
+            if (keyguardIsShowingTq()) {
+                if (open) {
+                    // only do this if it's opening -- closing the device shouldn't turn it
+                    // off, but it also shouldn't turn it on.
+                    mKeyguardMediator.pokeWakelock();
+                }
+            } else {
+                // Light up the keyboard if we are sliding up.
+                if (open) {
+                    mPowerManager.userActivity(SystemClock.uptimeMillis(), false,
+                            LocalPowerManager.BUTTON_EVENT);
+                } else {
+                    mPowerManager.userActivity(SystemClock.uptimeMillis(), false,
+                            LocalPowerManager.OTHER_EVENT);
+                }
+            }
+        }
+    };
 
     /*
      * Various use cases for invoking this function
@@ -248,31 +316,35 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     private void updateOrientationListener() {
         //Could have been invoked due to screen turning on or off or
         //change of the currently visible window's orientation
+        final int appOrientation = mRotationState.getAppOrientation();
+        final boolean sensorEnabled = mRotationState.isSensorEnabled();
         if(localLOGV) Log.i(TAG, "Screen status="+mScreenOn+
-                ", current orientation="+mCurrentAppOrientation+
-                ", SensorEnabled="+mOrientationSensorEnabled);
+                ", current orientation="+appOrientation+
+                ", SensorEnabled="+sensorEnabled);
         boolean disable = true;
         if(mScreenOn) {
-            if(mCurrentAppOrientation == ActivityInfo.SCREEN_ORIENTATION_SENSOR) {
+            if(appOrientation == ActivityInfo.SCREEN_ORIENTATION_SENSOR) {
                 disable = false;
                 //enable listener if not already enabled
-                if(!mOrientationSensorEnabled) {
-                    mOrientationListener.enable();
+                if(!sensorEnabled) {
+                    mOrientationSampler.setWanted(true);
                     if(localLOGV) Log.i(TAG, "Enabling listeners");
-                    mOrientationSensorEnabled = true;
+                    mRotationState.setSensorEnabled(true);
                 }
             } 
         } 
         //check if sensors need to be disabled
-        if(disable && mOrientationSensorEnabled) {
-            mOrientationListener.disable();
+        if(disable && sensorEnabled) {
+            mOrientationSampler.setWanted(false);
+            mOrientationFilter.reset();
             if(localLOGV) Log.i(TAG, "Disabling listeners");
-            mOrientationSensorEnabled = false;
+            mRotationState.setSensorEnabled(false);
         }
     }
 
-    private Runnable mEndCallLongPress = new Runnable() {
-        public void run() {
+    private final LongPressTimer.KeyAction mEndCallLongPress = new LongPressTimer.KeyAction() {
+        @Override
+        void onLongPress(int keyCode, Object arg) {
             mShouldTurnOffOnKeyUp = false;
             sendCloseSystemWindows(SYSTEM_DIALOG_REASON_GLOBAL_ACTIONS);
             showGlobalActionsDialog();
@@ -282,6 +354,7 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     private void showGlobalActionsDialog() {
         if (mGlobalActions == null) {
             mGlobalActions = new GlobalActions(mContext, mPowerManager);
+            mCloseSystemDialogs.addListener(mGlobalActions);
         }
         final boolean keyguardShowing = mKeyguardMediator.isShowing();
         mGlobalActions.showDialog(keyguardShowing, isDeviceProvisioned());
@@ -300,8 +373,9 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     /**
      * When a home-key longpress expires, close other system windows and launch the recent apps
      */
-    private Runnable mHomeLongPress = new Runnable() {
-        public void run() {
+    private final LongPressTimer.KeyAction mHomeLongPress = new LongPressTimer.KeyAction() {
+        @Override
+        void onLongPress(int keyCode, Object arg) {
             /*
              * Eat the longpress so it won't dismiss the recent apps dialog when
              * the user lets go of the home key
@@ -318,6 +392,7 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     private void showRecentAppsDialog() {
         if (mRecentAppsDialog == null) {
             mRecentAppsDialog = new RecentApplicationsDialog(mContext);
+            mCloseSystemDialogs.addListener(mRecentAppsDialog);
         }
         mRecentAppsDialog.show();
     }
@@ -330,7 +405,26 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         mPowerManager = powerManager;
         mKeyguardMediator = new KeyguardViewMediator(context, this, powerManager);
         mHandler = new Handler();
+        mCloseSystemDialogs = new CloseSystemDialogsDispatcher(context, mHandler.getLooper());
+        mLongPressTimer = new LongPressTimer(mHandler.getLooper(),
+                KeyEvent.KEYCODE_HOME, KeyEvent.KEYCODE_ENDCALL);
+        mPhoneStateListener = new PhoneStateListener() {
+            @Override
+            public void onCallStateChanged(int state, String incomingNumber) {
+                mCallState = state;
+            }
+        };
+        TelephonyManager telephony =
+                (TelephonyManager) context.getSystemService(Context.TELEPHONY_SERVICE);
+        telephony.listen(mPhoneStateListener, PhoneStateListener.LISTEN_CALL_STATE);
+        mOrientationFilter = new OrientationFilter(ORIENTATION_FILTER_TIME_CONSTANT_MS,
+                SystemProperties.getInt("ro.policy.orientation_hysteresis",
+                        DEFAULT_ORIENTATION_HYSTERESIS),
+                SystemProperties.getInt("ro.policy.orientation_settle_ms",
+                        DEFAULT_ORIENTATION_SETTLE_MS));
         mOrientationListener = new MyOrientationListener(mContext);
+        mOrientationSampler = new OrientationSampler(mHandler.getLooper(), mOrientationListener);
+        mRotationState = new RotationStateMachine(mHandler.getLooper(), mRotationCallbacks);
         SettingsObserver settingsObserver = new SettingsObserver();
         settingsObserver.observe();
         mShortcutManager = new ShortcutManager(context, mHandler);
@@ -342,7 +436,27 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         PowerManager pm = (PowerManager)context.getSystemService(Context.POWER_SERVICE);
         mBroadcastWakeLock = pm.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK,
                 "PhoneWindowManager.mBroadcastWakeLock");
+        mMediaButtonDispatcher = new MediaButtonDispatcher(context, mHandler);
         mEnableShiftMenuBugReports = "1".equals(SystemProperties.get("ro.debuggable"));
+        String tracePath = SystemProperties.get(InputEventRecorder.TRACE_PROPERTY);
+        if (tracePath != null && tracePath.length() > 0) {
+            mInputRecorder = InputEventRecorder.open(tracePath);
+        }
+        mIncrementalLayout = SystemProperties.getBoolean(LayoutCache.PROPERTY, false);
+        mDefaultDisplay = new DisplayLayoutContext(DisplayLayoutContext.DEFAULT_DISPLAY,
+                mIncrementalLayout);
+        mLayerTable.readOverrides();
+        mStartingWindows.register(context);
+        if (SystemProperties.getBoolean(ASYNC_STARTING_WINDOW_PROPERTY, false)) {
+            HandlerThread thread = new HandlerThread("StartingWindow");
+            thread.start();
+            mStartingWindowHandler = new Handler(thread.getLooper());
+        }
+        final int snapshotKb = SystemProperties.getInt(StartingWindowCache.SNAPSHOT_PROPERTY, 0);
+        if (snapshotKb > 0) {
+            mStartingWindows.setSnapshotLimit(snapshotKb * 1024);
+        }
+        initChords();
     }
 
     /** {@inheritDoc} */
@@ -389,26 +503,15 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         }
     }
     
-    private void readLidState() {
-        try {
-            int sw = mWindowManager.getSwitchState(0);
-            if (sw >= 0) {
-                mLidOpen = sw == 0;
-            }
-        } catch (RemoteException e) {
-            // Ignore
-        }
-    }
-    
     /** {@inheritDoc} */
     public void adjustConfigurationLw(Configuration config) {
-        readLidState();
-        mPowerManager.setKeyboardVisibility(mLidOpen);
-        config.keyboardHidden = mLidOpen
+        final boolean lidOpen = mRotationState.isLidOpen();
+        mRotationState.syncKeyboardVisibility();
+        config.keyboardHidden = lidOpen
             ? Configuration.KEYBOARDHIDDEN_NO
             : Configuration.KEYBOARDHIDDEN_YES;
         if (keyguardIsShowingTq()) {
-            if (mLidOpen) {
+            if (lidOpen) {
                 // only do this if it's opening -- closing the device shouldn't turn it
                 // off, but it also shouldn't turn it on.
                 mKeyguardMediator.pokeWakelock();
@@ -432,107 +535,177 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         return false;
     }
     
+    private final WindowLayerTable mLayerTable = buildLayerTable();
+
+    /** Contexts and windows kept from earlier starting windows. */
+    private final StartingWindowCache mStartingWindows = new StartingWindowCache();
+
+    /** System property that moves starting window construction to its own thread. */
+    private static final String ASYNC_STARTING_WINDOW_PROPERTY =
+            "debug.policy.async_starting";
+
+    /**
+     * Non-null when starting windows are built, added and removed on their
+     * own thread rather than the window manager's.
+     */
+    private Handler mStartingWindowHandler;
+
+    private static WindowLayerTable buildLayerTable() {
+        final WindowLayerTable table = new WindowLayerTable(APPLICATION_LAYER);
+        table.setLayer(TYPE_APPLICATION_PANEL, APPLICATION_LAYER);
+        table.setLayer(TYPE_APPLICATION_SUB_PANEL, APPLICATION_LAYER);
+        table.setLayer(TYPE_STATUS_BAR, STATUS_BAR_LAYER);
+        table.setLayer(TYPE_STATUS_BAR_PANEL, STATUS_BAR_PANEL_LAYER);
+        table.setLayer(TYPE_SEARCH_BAR, SEARCH_BAR_LAYER);
+        table.setLayer(TYPE_PHONE, PHONE_LAYER);
+        table.setLayer(TYPE_KEYGUARD, KEYGUARD_LAYER);
+        table.setLayer(TYPE_KEYGUARD_DIALOG, KEYGUARD_DIALOG_LAYER);
+        table.setLayer(TYPE_SYSTEM_ALERT, SYSTEM_ALERT_LAYER);
+        table.setLayer(TYPE_SYSTEM_ERROR, SYSTEM_ERROR_LAYER);
+        table.setLayer(TYPE_SYSTEM_OVERLAY, SYSTEM_OVERLAY_LAYER);
+        table.setLayer(TYPE_PRIORITY_PHONE, PRIORITY_PHONE_LAYER);
+        table.setLayer(TYPE_TOAST, TOAST_LAYER);
+
+        table.setSubLayer(TYPE_APPLICATION_PANEL, APPLICATION_PANEL_SUBLAYER);
+        table.setSubLayer(TYPE_APPLICATION_MEDIA, APPLICATION_MEDIA_SUBLAYER);
+        table.setSubLayer(TYPE_APPLICATION_SUB_PANEL, APPLICATION_SUB_PANEL_SUBLAYER);
+        return table;
+    }
+
     /** {@inheritDoc} */
     public int windowTypeToLayerLw(int type) {
-        if (type >= FIRST_APPLICATION_WINDOW && type <= LAST_APPLICATION_WINDOW) {
-            return APPLICATION_LAYER;
-        }
-        switch (type) {
-        case TYPE_APPLICATION_PANEL:
-            return APPLICATION_LAYER;
-        case TYPE_APPLICATION_SUB_PANEL:
-            return APPLICATION_LAYER;
-        case TYPE_STATUS_BAR:
-            return STATUS_BAR_LAYER;
-        case TYPE_STATUS_BAR_PANEL:
-            return STATUS_BAR_PANEL_LAYER;
-        case TYPE_SEARCH_BAR:
-            return SEARCH_BAR_LAYER;
-        case TYPE_PHONE:
-            return PHONE_LAYER;
-        case TYPE_KEYGUARD:
-            return KEYGUARD_LAYER;
-        case TYPE_KEYGUARD_DIALOG:
-            return KEYGUARD_DIALOG_LAYER;
-        case TYPE_SYSTEM_ALERT:
-            return SYSTEM_ALERT_LAYER;
-        case TYPE_SYSTEM_ERROR:
-            return SYSTEM_ERROR_LAYER;
-        case TYPE_SYSTEM_OVERLAY:
-            return SYSTEM_OVERLAY_LAYER;
-        case TYPE_PRIORITY_PHONE:
-            return PRIORITY_PHONE_LAYER;
-        case TYPE_TOAST:
-            return TOAST_LAYER;
-        }
-        Log.e(TAG, "Unknown window type: " + type);
-        return APPLICATION_LAYER;
+        return mLayerTable.windowTypeToLayer(type);
     }
 
     /** {@inheritDoc} */
     public int subWindowTypeToLayerLw(int type) {
-        switch (type) {
-        case TYPE_APPLICATION_PANEL:
-            return APPLICATION_PANEL_SUBLAYER;
-        case TYPE_APPLICATION_MEDIA:
-            return APPLICATION_MEDIA_SUBLAYER;
-        case TYPE_APPLICATION_SUB_PANEL:
-            return APPLICATION_SUB_PANEL_SUBLAYER;
-        }
-        Log.e(TAG, "Unknown sub-window type: " + type);
-        return 0;
+        return mLayerTable.subWindowTypeToLayer(type);
     }
 
     /** {@inheritDoc} */
     public View addStartingWindow(IBinder appToken, String packageName,
                                   int theme, CharSequence nonLocalizedLabel,
                                   int labelRes, int icon) {
+        if (mStartingWindowHandler != null && SHOW_STARTING_ANIMATIONS
+                && packageName != null) {
+            return postAddStartingWindow(appToken, packageName, theme, nonLocalizedLabel,
+                    labelRes, icon);
+        }
+        return timedAddStartingWindow(appToken, packageName, theme, nonLocalizedLabel,
+                labelRes, icon);
+    }
+
+    private View timedAddStartingWindow(IBinder appToken, String packageName,
+            int theme, CharSequence nonLocalizedLabel, int labelRes, int icon) {
+        final long start = mLatencyStats.start();
+        try {
+            return doAddStartingWindow(appToken, packageName, theme, nonLocalizedLabel,
+                    labelRes, icon);
+        } finally {
+            mLatencyStats.end(LatencyStats.ADD_STARTING_WINDOW, start);
+        }
+    }
+
+    /**
+     * A starting window being built on {@link #mStartingWindowHandler}.  The
+     * window manager is given a placeholder view tagged with this, which it
+     * hands back to {@link #removeStartingWindow}.
+     */
+    private static final class StartingWindowRequest {
+        /** Set when the window is removed before it has been built. */
+        volatile boolean cancelled;
+        /** The view actually added; only used on the starting window thread. */
+        View view;
+    }
+
+    /**
+     * Build the starting window on {@link #mStartingWindowHandler}, so the
+     * window manager isn't held up by the inflation, and never waits for it:
+     * the window manager adding the window on the other thread needs the
+     * window manager's lock.
+     *
+     * If the window can't be built, for example because its theme is
+     * floating or its token has already gone, nothing is shown and the
+     * placeholder stands for nothing until the window manager removes it,
+     * as it removes every starting window once the app's own window is
+     * drawn or its token goes away.  A window built after that removal has
+     * run is taken straight down again.
+     *
+     * @return A placeholder standing for the window.
+     */
+    private View postAddStartingWindow(final IBinder appToken, final String packageName,
+            final int theme, final CharSequence nonLocalizedLabel, final int labelRes,
+            final int icon) {
+        final StartingWindowRequest request = new StartingWindowRequest();
+        mStartingWindowHandler.post(new Runnable() {
+            public void run() {
+                if (request.cancelled) {
+                    return;
+                }
+                View view = timedAddStartingWindow(appToken, packageName, theme,
+                        nonLocalizedLabel, labelRes, icon);
+                if (view != null && request.cancelled) {
+                    // The app's own window won while we were adding
+                    // this one, and its removal has already run.
+                    removeStartingWindowNow(view);
+                    view = null;
+                }
+                request.view = view;
+            }
+        });
+        final View placeholder = new View(mContext);
+        placeholder.setTag(request);
+        return placeholder;
+    }
+
+    private View doAddStartingWindow(IBinder appToken, String packageName,
+                                  int theme, CharSequence nonLocalizedLabel,
+                                  int labelRes, int icon) {
         if (!SHOW_STARTING_ANIMATIONS) {
             return null;
         }
         if (packageName == null) {
             return null;
         }
-        
-    	Context context = mContext;
-    	boolean setTheme = false;
-    	//Log.i(TAG, "addStartingWindow " + packageName + ": nonLocalizedLabel="
-    	//        + nonLocalizedLabel + " theme=" + Integer.toHexString(theme));
-    	if (theme != 0 || labelRes != 0) {
-    	    try {
-    	        context = context.createPackageContext(packageName, 0);
-    	        if (theme != 0) {
-    	            context.setTheme(theme);
-    	            setTheme = true;
-    	        }
-    	    } catch (PackageManager.NameNotFoundException e) {
-                // Ignore
+
+        if (mStartingWindows.hasSnapshots()) {
+            final View snapshotView = addStartingSnapshot(appToken, packageName, theme,
+                    labelRes);
+            if (snapshotView != null) {
+                return snapshotView;
             }
-    	}
-    	if (!setTheme) {
-    	    context.setTheme(com.android.internal.R.style.Theme);
-    	}
-    	
-        Window win = PolicyManager.makeNewWindow(context);
-        Resources r = context.getResources();
-        win.setTitle(r.getText(labelRes, nonLocalizedLabel));
+        }
+        
+        Window win = mStartingWindows.takeWindow(packageName, theme, labelRes);
+        final Context context;
+        if (win != null) {
+            context = win.getContext();
+        } else {
+            context = getStartingWindowContext(packageName, theme, labelRes);
+            win = PolicyManager.makeNewWindow(context);
+
+            win.setType(
+                WindowManager.LayoutParams.TYPE_APPLICATION_STARTING);
+            win.setFlags(
+                WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE|
+                WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE,
+                WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE|
+                WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE);
+
+            win.setLayout(WindowManager.LayoutParams.FILL_PARENT,
+                                WindowManager.LayoutParams.FILL_PARENT);
 
-        win.setType(
-            WindowManager.LayoutParams.TYPE_APPLICATION_STARTING);
-        win.setFlags(
-            WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE|
-            WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE,
-            WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE|
-            WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE);
+            final WindowManager.LayoutParams params = win.getAttributes();
+            params.packageName = packageName;
+            params.windowAnimations = win.getWindowStyle().getResourceId(
+                    com.android.internal.R.styleable.Window_windowAnimationStyle, 0);
+        }
 
-        win.setLayout(WindowManager.LayoutParams.FILL_PARENT,
-                            WindowManager.LayoutParams.FILL_PARENT);
+        Resources r = context.getResources();
+        win.setTitle(r.getText(labelRes, nonLocalizedLabel));
 
         final WindowManager.LayoutParams params = win.getAttributes();
         params.token = appToken;
-        params.packageName = packageName;
-        params.windowAnimations = win.getWindowStyle().getResourceId(
-                com.android.internal.R.styleable.Window_windowAnimationStyle, 0);
         params.setTitle("Starting " + packageName);
 
         try {
@@ -559,7 +732,10 @@ public class PhoneWindowManager implements WindowManagerPolicy {
 
             // Only return the view if it was successfully added to the
             // window manager... which we can tell by it having a parent.
-            return view.getParent() != null ? view : null;
+            if (view.getParent() != null) {
+                mStartingWindows.addLiveWindow(view, win, packageName, theme, labelRes);
+                return view;
+            }
         } catch (WindowManagerImpl.BadTokenException e) {
             // ignore
             Log.w(TAG, appToken + " already running, starting window not displayed");
@@ -568,17 +744,117 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         return null;
     }
 
+    /**
+     * Show the snapshot of an earlier starting window for the same package,
+     * theme, label and orientation, if there is one.
+     *
+     * @return The view added, or null if there was no snapshot or it couldn't
+     *   be shown.
+     */
+    private View addStartingSnapshot(IBinder appToken, String packageName, int theme,
+            int labelRes) {
+        final int orientation = mContext.getResources().getConfiguration().orientation;
+        final StartingWindowCache.Snapshot snapshot =
+                mStartingWindows.getSnapshot(packageName, theme, labelRes, orientation);
+        if (snapshot == null) {
+            return null;
+        }
+
+        final WindowManager.LayoutParams params = new WindowManager.LayoutParams(
+                WindowManager.LayoutParams.FILL_PARENT,
+                WindowManager.LayoutParams.FILL_PARENT,
+                WindowManager.LayoutParams.TYPE_APPLICATION_STARTING,
+                WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE|
+                WindowManager.LayoutParams.FLAG_NOT_FOCUSABLE,
+                snapshot.format);
+        params.token = appToken;
+        params.packageName = packageName;
+        params.windowAnimations = snapshot.windowAnimations;
+        params.setTitle("Starting " + packageName);
+
+        try {
+            WindowManagerImpl wm = (WindowManagerImpl)
+                    mContext.getSystemService(Context.WINDOW_SERVICE);
+            View view = snapshot.createView(mContext);
+            wm.addView(view, params);
+            return view.getParent() != null ? view : null;
+        } catch (WindowManagerImpl.BadTokenException e) {
+            // ignore
+            Log.w(TAG, appToken + " already running, starting window not displayed");
+        }
+        return null;
+    }
+
+    /**
+     * @return The context to build a starting window for
+     *   <var>packageName</var> in, with its theme applied.
+     */
+    private Context getStartingWindowContext(String packageName, int theme, int labelRes) {
+    	//Log.i(TAG, "addStartingWindow " + packageName + ": theme="
+    	//        + Integer.toHexString(theme));
+        if (theme != 0 || labelRes != 0) {
+            Context context = mStartingWindows.getContext(packageName, theme);
+            if (context != null) {
+                return context;
+            }
+            try {
+                context = mContext.createPackageContext(packageName, 0);
+                context.setTheme(theme != 0 ? theme : com.android.internal.R.style.Theme);
+                mStartingWindows.putContext(packageName, theme, context);
+                return context;
+            } catch (PackageManager.NameNotFoundException e) {
+                // Ignore
+            }
+        }
+        // Don't re-theme mContext itself; it is shared with everything else
+        // in the policy, and this may be running on the starting window thread.
+        return new ContextThemeWrapper(mContext, com.android.internal.R.style.Theme);
+    }
+
     /** {@inheritDoc} */
-    public void removeStartingWindow(IBinder appToken, View window) {
+    public void removeStartingWindow(IBinder appToken, final View window) {
         // RuntimeException e = new RuntimeException();
         // Log.i(TAG, "remove " + appToken + " " + window, e);
 
         if (localLOGV) Log.v(
             TAG, "Removing starting window for " + appToken + ": " + window);
 
+        if (mStartingWindowHandler != null && window != null) {
+            // Take it down on the thread that put it up, after any build
+            // that has started, and stop it being built if it hasn't been.
+            final Object tag = window.getTag();
+            final StartingWindowRequest request = tag instanceof StartingWindowRequest
+                    ? (StartingWindowRequest) tag : null;
+            if (request != null) {
+                request.cancelled = true;
+            }
+            mStartingWindowHandler.post(new Runnable() {
+                public void run() {
+                    if (request != null) {
+                        removeStartingWindowNow(request.view);
+                        request.view = null;
+                    } else {
+                        removeStartingWindowNow(window);
+                    }
+                }
+            });
+            return;
+        }
+        removeStartingWindowNow(window);
+    }
+
+    private void removeStartingWindowNow(View window) {
         if (window != null) {
             WindowManagerImpl wm = (WindowManagerImpl) mContext.getSystemService(Context.WINDOW_SERVICE);
+            if (mStartingWindows.hasSnapshots()) {
+                ViewGroup.LayoutParams lp = window.getLayoutParams();
+                if (lp instanceof WindowManager.LayoutParams) {
+                    mStartingWindows.captureSnapshot(window, (WindowManager.LayoutParams) lp,
+                            mContext.getResources().getConfiguration().orientation);
+                }
+            }
             wm.removeView(window);
+            mStartingWindows.recycleWindow(window);
         }
     }
 
@@ -598,39 +874,82 @@ public class PhoneWindowManager implements WindowManagerPolicy {
      * @return If ok, WindowManagerImpl.ADD_OKAY.  If too many singletons, WindowManagerImpl.ADD_MULTIPLE_SINGLETON
      */
     public int prepareAddWindowLw(WindowState win, WindowManager.LayoutParams attrs) {
-        switch (attrs.type) {
-            case TYPE_STATUS_BAR:
-                if (mStatusBar != null) {
-                    return WindowManagerImpl.ADD_MULTIPLE_SINGLETON;
-                }
-                mStatusBar = win;
-                break;
-            case TYPE_SEARCH_BAR:
-                if (mSearchBar != null) {
-                    return WindowManagerImpl.ADD_MULTIPLE_SINGLETON;
-                }
-                mSearchBar = win;
-                break;
-            case TYPE_KEYGUARD:
-                if (mKeyguard != null) {
-                    return WindowManagerImpl.ADD_MULTIPLE_SINGLETON;
-                }
-                mKeyguard = win;
-                break;
-        }
-        return WindowManagerImpl.ADD_OKAY;
+        return prepareAddWindowLw(DisplayLayoutContext.DEFAULT_DISPLAY, win, attrs);
+    }
+
+    /**
+     * Like {@link #prepareAddWindowLw(WindowState, WindowManager.LayoutParams)},
+     * for a window on the given display.  Each display has its own singletons.
+     */
+    public int prepareAddWindowLw(int displayId, WindowState win,
+            WindowManager.LayoutParams attrs) {
+        final DisplayLayoutContext display = obtainDisplayLw(displayId);
+        final int res = display.addWindow(win, attrs);
+        if (display == mDefaultDisplay
+                && res == WindowManagerImpl.ADD_OKAY && attrs.type == TYPE_STATUS_BAR) {
+            mStatusBarState = STATUS_BAR_UNKNOWN;
+        }
+        return res;
     }
 
     /** {@inheritDoc} */
     public void removeWindowLw(WindowState win) {
-        if (mStatusBar == win) {
-            mStatusBar = null;
+        removeWindowLw(DisplayLayoutContext.DEFAULT_DISPLAY, win);
+    }
+
+    /**
+     * Like {@link #removeWindowLw(WindowState)}, for a window on the given
+     * display.
+     */
+    public void removeWindowLw(int displayId, WindowState win) {
+        final DisplayLayoutContext display = getDisplayLw(displayId);
+        if (display != null) {
+            display.removeWindow(win);
+        }
+    }
+
+    /**
+     * @return The layout context of a display, or null if nothing has been
+     *   added to or laid out on it.
+     */
+    private DisplayLayoutContext getDisplayLw(int displayId) {
+        if (displayId == DisplayLayoutContext.DEFAULT_DISPLAY) {
+            return mDefaultDisplay;
+        }
+        // Different displays may be laid out on different threads.
+        synchronized (mDisplays) {
+            return mDisplays.get(displayId);
+        }
+    }
+
+    /**
+     * @return The layout context of a display, created the first time a
+     *   window is added to or laid out on a display other than the default.
+     */
+    private DisplayLayoutContext obtainDisplayLw(int displayId) {
+        if (displayId == DisplayLayoutContext.DEFAULT_DISPLAY) {
+            return mDefaultDisplay;
+        }
+        synchronized (mDisplays) {
+            DisplayLayoutContext display = mDisplays.get(displayId);
+            if (display == null) {
+                display = new DisplayLayoutContext(displayId, mIncrementalLayout);
+                mDisplays.put(displayId, display);
+            }
+            return display;
         }
-        else if (mSearchBar == win) {
-            mSearchBar = null;
+    }
+
+    /**
+     * Forget a display other than the default that has gone away, along with
+     * the windows registered on it.
+     */
+    public void removeDisplayLw(int displayId) {
+        if (displayId == DisplayLayoutContext.DEFAULT_DISPLAY) {
+            throw new IllegalArgumentException("can't remove the default display");
         }
-        else if (mKeyguard == win) {
-            mKeyguard = null;
+        synchronized (mDisplays) {
+            mDisplays.remove(displayId);
         }
     }
 
@@ -650,21 +969,142 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         return 0;
     }
 
-    private static ITelephony getPhoneInterface() {
-        return ITelephony.Stub.asInterface(ServiceManager.checkService(Context.TELEPHONY_SERVICE));
+    /**
+     * These are used on the key input path, so hold on to them rather than
+     * going through the service manager for every key.
+     */
+    private final CachedServiceHandle<ITelephony> mPhoneService =
+            new CachedServiceHandle<ITelephony>(Context.TELEPHONY_SERVICE) {
+        protected ITelephony asInterface(IBinder binder) {
+            return ITelephony.Stub.asInterface(binder);
+        }
+    };
+
+    private final CachedServiceHandle<IAudioService> mAudioService =
+            new CachedServiceHandle<IAudioService>(Context.AUDIO_SERVICE) {
+        protected IAudioService asInterface(IBinder binder) {
+            return IAudioService.Stub.asInterface(binder);
+        }
+    };
+
+    private ITelephony getPhoneInterface() {
+        return mPhoneService.get();
     }
 
-    private static IAudioService getAudioInterface() {
-        return IAudioService.Stub.asInterface(ServiceManager.checkService(Context.AUDIO_SERVICE));
+    private IAudioService getAudioInterface() {
+        return mAudioService.get();
     }
 
     private boolean keyguardOn() {
         return keyguardIsShowingTq() || inKeyguardRestrictedKeyInputMode();
     }
 
+    /**
+     * The chords the policy intercepts, built once in {@link #init}.
+     */
+    private final ChordMatcher mChords = new ChordMatcher();
+
+    /** The window focused at the last key; only used on the input dispatch thread. */
+    private WindowState mChordFocus;
+
+    /** Set when the screen turns off, so the next key starts chords afresh. */
+    private volatile boolean mResetChords;
+
+    // Hijack modified menu keys for debugging features
+    private final ChordMatcher.Action mBugReportChord = new ChordMatcher.Action() {
+        public boolean onChord(int keyCode, int metaKeys, boolean keyguardOn) {
+            Intent intent = new Intent(Intent.ACTION_BUG_REPORT);
+            mContext.sendOrderedBroadcast(intent, null);
+            return true;
+        }
+    };
+
+    private final ChordMatcher.Action mLoadAverageChord = new ChordMatcher.Action() {
+        public boolean onChord(int keyCode, int metaKeys, boolean keyguardOn) {
+            Intent service = new Intent();
+            service.setClassName(mContext, "com.android.server.LoadAverageService");
+            ContentResolver res = mContext.getContentResolver();
+            boolean shown = Settings.System.getInt(
+                    res, Settings.System.SHOW_PROCESSES, 0) != 0;
+            if (!shown) {
+                mContext.startService(service);
+            } else {
+                mContext.stopService(service);
+            }
+            Settings.System.putInt(
+                    res, Settings.System.SHOW_PROCESSES, shown ? 0 : 1);
+            return true;
+        }
+    };
+
+    // Shortcuts are invoked through Search+key
+    private final ChordMatcher.Action mShortcutChord = new ChordMatcher.Action() {
+        public boolean onChord(int keyCode, int metaKeys, boolean keyguardOn) {
+            if (keyguardOn) {
+                return false;
+            }
+            Intent shortcutIntent = mShortcutManager.getIntent(keyCode, metaKeys);
+            if (shortcutIntent == null) {
+                return false;
+            }
+            shortcutIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+            mContext.startActivity(shortcutIntent);
+            // We launched an app, so the up-event of the search key
+            // will be consumed
+            return true;
+        }
+    };
+
+    /**
+     * Add the policy's chords to {@link #mChords}.
+     */
+    private void initChords() {
+        if (mEnableShiftMenuBugReports) {
+            mChords.addChord(new int[] { KeyEvent.KEYCODE_MENU },
+                    KeyEvent.META_SHIFT_ON, 0, mBugReportChord);
+        }
+        if (SHOW_PROCESSES_ON_ALT_MENU) {
+            mChords.addChord(new int[] { KeyEvent.KEYCODE_MENU },
+                    KeyEvent.META_ALT_ON, 0, mLoadAverageChord);
+        }
+        mChords.addChord(new int[] { KeyEvent.KEYCODE_SEARCH, ChordMatcher.ANY_KEY },
+                0, 0, mShortcutChord);
+    }
+
     /** {@inheritDoc} */
     public boolean interceptKeyTi(WindowState win, int code, int metaKeys, boolean down, 
             int repeatCount) {
+        if (mInputRecorder != null) {
+            WindowManager.LayoutParams attrs = win != null ? win.getAttrs() : null;
+            mInputRecorder.recordKeyTi(attrs != null ? attrs.type : -1, code, metaKeys,
+                    down, repeatCount, mScreenOn, keyguardIsShowingTq());
+        }
+        final long start = mLatencyStats.start();
+        try {
+            return doInterceptKeyTi(win, code, metaKeys, down, repeatCount);
+        } finally {
+            mLatencyStats.end(LatencyStats.INTERCEPT_KEY_TI, start);
+        }
+    }
+
+    private boolean doInterceptKeyTi(WindowState win, int code, int metaKeys, boolean down,
+            int repeatCount) {
+        // The up events of held chord keys may have gone to another window,
+        // or been lost while the screen was off; start over rather than
+        // match or eat later keys against keys that are no longer down.
+        if (win != mChordFocus || mResetChords) {
+            mChordFocus = win;
+            mResetChords = false;
+            mChords.reset();
+        }
+
+        // Most keys are not ours; unless HOME or part of a chord is being
+        // held, let them through without looking at anything else.
+        if (code != KeyEvent.KEYCODE_HOME && code != KeyEvent.KEYCODE_NOTIFICATION
+                && !mHomePressed && !mChords.isTracking(code)) {
+            return false;
+        }
+
         boolean keyguardOn = keyguardOn();
 
         if (false) {
@@ -676,7 +1116,7 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         // TODO: This could probably be inside the next bit of logic, but that code
         // turned out to be a bit fragile so I'm doing it here explicitly, for now.
         if ((code == KeyEvent.KEYCODE_HOME) && !down) {
-            mHandler.removeCallbacks(mHomeLongPress);
+            mLongPressTimer.cancel(KeyEvent.KEYCODE_HOME);
         }
 
         // If the HOME button is currently being held, then we do special
@@ -692,19 +1132,7 @@ public class PhoneWindowManager implements WindowManagerPolicy {
                     // If an incoming call is ringing, HOME is totally disabled.
                     // (The user is already on the InCallScreen at this point,
                     // and his ONLY options are to answer or reject the call.)
-                    boolean incomingRinging = false;
-                    try {
-                        ITelephony phoneServ = getPhoneInterface();
-                        if (phoneServ != null) {
-                            incomingRinging = phoneServ.isRinging();
-                        } else {
-                            Log.w(TAG, "Unable to find ITelephony interface");
-                        }
-                    } catch (RemoteException ex) {
-                        Log.w(TAG, "RemoteException from getPhoneInterface()", ex);
-                    }
-    
-                    if (incomingRinging) {
+                    if (mCallState == TelephonyManager.CALL_STATE_RINGING) {
                         Log.i(TAG, "Ignoring HOME; there's a ringing incoming call.");
                     } else {
                         launchHomeFromHotKey();
@@ -714,7 +1142,7 @@ public class PhoneWindowManager implements WindowManagerPolicy {
             
             return true;
         }
-            
+
         // First we always handle the home key here, so applications
         // can never break it, although if keyguard is on, we do let
         // it handle it, because that gives us the correct 5 second
@@ -730,45 +1158,20 @@ public class PhoneWindowManager implements WindowManagerPolicy {
                         && type <= WindowManager.LayoutParams.LAST_SYSTEM_WINDOW) {
                     // Only do this once, so home-key-longpress doesn't close itself
                     if (repeatCount == 0 && down) {
-                		sendCloseSystemWindows();
+                        sendCloseSystemWindows();
                     }
                     return false;
                 }
             }
-            
+
             if (down && repeatCount == 0) {
                 if (!keyguardOn) {
-                    mHandler.postDelayed(mHomeLongPress, ViewConfiguration.getGlobalActionKeyTimeout());
+                    mLongPressTimer.keyDown(code, mHomeLongPress, null,
+                            ViewConfiguration.getGlobalActionKeyTimeout());
                 }
                 mHomePressed = true;
             }
             return true;
-        } else if (code == KeyEvent.KEYCODE_MENU) {
-            // Hijack modified menu keys for debugging features
-            final int chordBug = KeyEvent.META_SHIFT_ON;
-
-            if (down && repeatCount == 0) {
-                if (mEnableShiftMenuBugReports && (metaKeys & chordBug) == chordBug) {
-                    Intent intent = new Intent(Intent.ACTION_BUG_REPORT);
-                    mContext.sendOrderedBroadcast(intent, null);
-                    return true;
-                } else if (SHOW_PROCESSES_ON_ALT_MENU &&
-                        (metaKeys & KeyEvent.META_ALT_ON) == KeyEvent.META_ALT_ON) {
-                    Intent service = new Intent();
-                    service.setClassName(mContext, "com.android.server.LoadAverageService");
-                    ContentResolver res = mContext.getContentResolver();
-                    boolean shown = Settings.System.getInt(
-                            res, Settings.System.SHOW_PROCESSES, 0) != 0;
-                    if (!shown) {
-                        mContext.startService(service);
-                    } else {
-                        mContext.stopService(service);
-                    }
-                    Settings.System.putInt(
-                            res, Settings.System.SHOW_PROCESSES, shown ? 0 : 1);
-                    return true;
-                }
-            }
         } else if (code == KeyEvent.KEYCODE_NOTIFICATION) {
             if (down) {
                 // this key doesn't exist on current hardware, but if a device
@@ -785,41 +1188,9 @@ public class PhoneWindowManager implements WindowManagerPolicy {
                 }
             }
             return true;
-        } else if (code == KeyEvent.KEYCODE_SEARCH) {
-            if (down) {
-                if (repeatCount == 0) {
-                    mSearchKeyPressed = true;
-                }
-            } else {
-                mSearchKeyPressed = false;
-                
-                if (mConsumeSearchKeyUp) {
-                    // Consume the up-event
-                    mConsumeSearchKeyUp = false;
-                    return true;
-                }
-            }
-        }
-        
-        // Shortcuts are invoked through Search+key, so intercept those here
-        if (mSearchKeyPressed) {
-            if (down && repeatCount == 0 && !keyguardOn) {
-                Intent shortcutIntent = mShortcutManager.getIntent(code, metaKeys);
-                if (shortcutIntent != null) {
-                    shortcutIntent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-                    mContext.startActivity(shortcutIntent);
-                    
-                    /*
-                     * We launched an app, so the up-event of the search key
-                     * should be consumed
-                     */
-                    mConsumeSearchKeyUp = true;
-                    return true;
-                }
-            }
         }
 
-        return false;
+        return mChords.onKeyTi(code, metaKeys, down, repeatCount, keyguardOn);
     }
 
     /**
@@ -848,12 +1219,19 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     }
 
     public void getCoveredInsetHintLw(WindowManager.LayoutParams attrs, Rect coveredInset) {
+        getCoveredInsetHintLw(DisplayLayoutContext.DEFAULT_DISPLAY, attrs, coveredInset);
+    }
+
+    public void getCoveredInsetHintLw(int displayId, WindowManager.LayoutParams attrs,
+            Rect coveredInset) {
+        final DisplayLayoutContext display = getDisplayLw(displayId);
         final int fl = attrs.flags;
         
-        if ((fl &
+        if (display != null && (fl &
                 (FLAG_LAYOUT_IN_SCREEN | FLAG_FULLSCREEN | FLAG_LAYOUT_INSET_DECOR))
                 == (FLAG_LAYOUT_IN_SCREEN | FLAG_LAYOUT_INSET_DECOR)) {
-            coveredInset.set(mCurLeft, mCurTop, mW - mCurRight, mH - mCurBottom);
+            coveredInset.set(display.curLeft, display.curTop,
+                    display.w - display.curRight, display.h - display.curBottom);
         } else {
             coveredInset.setEmpty();
         }
@@ -861,50 +1239,90 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     
     /** {@inheritDoc} */
     public void beginLayoutLw(int displayWidth, int displayHeight) {
-        mW = displayWidth;
-        mH = displayHeight;
-        mCurLeft = 0;
-        mCurTop = 0;
-        mCurRight = displayWidth;
-        mCurBottom = displayHeight;
+        beginLayoutLw(DisplayLayoutContext.DEFAULT_DISPLAY, displayWidth, displayHeight);
+    }
+
+    /**
+     * Like {@link #beginLayoutLw(int, int)}, for the given display.  Different
+     * displays may be laid out at the same time.
+     */
+    public void beginLayoutLw(int displayId, int displayWidth, int displayHeight) {
+        final DisplayLayoutContext display = obtainDisplayLw(displayId);
+        display.beginLayout(displayWidth, displayHeight);
 
         // decide where the status bar goes ahead of time
-        if (mStatusBar != null) {
-            mStatusBar.computeFrameLw(0, 0, displayWidth, displayHeight,
-                                    0, 0, displayWidth, displayHeight);
-            mCurTop = mStatusBar.getFrameLw().bottom;
+        final WindowState statusBar = display.statusBar;
+        if (statusBar != null) {
+            final LayoutCache cache = display.layoutCache;
+            if (cache == null || cache.needsLayout(statusBar,
+                    statusBar.getAttrs(), 0, 0, 0, 0,
+                    0, 0, displayWidth, displayHeight, 0, 0, displayWidth, displayHeight)) {
+                statusBar.computeFrameLw(0, 0, displayWidth, displayHeight,
+                                        0, 0, displayWidth, displayHeight);
+            }
+            display.curTop = statusBar.getFrameLw().bottom;
         }
     }
 
     /** {@inheritDoc} */
     public void layoutWindowLw(WindowState win, WindowManager.LayoutParams attrs, WindowState attached) {
+        layoutWindowLw(DisplayLayoutContext.DEFAULT_DISPLAY, win, attrs, attached);
+    }
+
+    /**
+     * Like {@link #layoutWindowLw(WindowState, WindowManager.LayoutParams, WindowState)},
+     * for a window on the given display.
+     */
+    public void layoutWindowLw(int displayId, WindowState win,
+            WindowManager.LayoutParams attrs, WindowState attached) {
+        final long start = mLatencyStats.start();
+        try {
+            doLayoutWindowLw(obtainDisplayLw(displayId), win, attrs, attached);
+        } finally {
+            mLatencyStats.end(LatencyStats.LAYOUT_WINDOW, start);
+        }
+    }
+
+    private void doLayoutWindowLw(DisplayLayoutContext display, WindowState win,
+            WindowManager.LayoutParams attrs, WindowState attached) {
         // we've already done the status bar
-        if (win == mStatusBar) {
+        if (win == display.statusBar) {
             return;
         }
 
+        final int w = display.w;
+        final int h = display.h;
+        final int curLeft = display.curLeft;
+        final int curTop = display.curTop;
+        final int curRight = display.curRight;
+        final int curBottom = display.curBottom;
+
         final int fl = attrs.flags;
         
         int dl, dt, dr, db;
         if ((fl & FLAG_LAYOUT_IN_SCREEN) == 0) {
             // Make sure this window doesn't intrude into the status bar.
-            dl = mCurLeft;
-            dt = mCurTop;
-            dr = mCurRight;
-            db = mCurBottom;
+            dl = curLeft;
+            dt = curTop;
+            dr = curRight;
+            db = curBottom;
         } else {
             dl = 0;
             dt = 0;
-            dr = mW;
-            db = mH;
+            dr = w;
+            db = h;
         }
         
+        int il, it, ir, ib;
         if ((fl &
                 (FLAG_LAYOUT_IN_SCREEN | FLAG_FULLSCREEN | FLAG_LAYOUT_INSET_DECOR))
                 == (FLAG_LAYOUT_IN_SCREEN | FLAG_LAYOUT_INSET_DECOR)) {
-            win.setCoveredInsetsLw(mCurLeft, mCurTop, mW - mCurRight, mH - mCurBottom);
+            il = curLeft;
+            it = curTop;
+            ir = w - curRight;
+            ib = h - curBottom;
         } else {
-            win.setCoveredInsetsLw(0, 0, 0, 0);
+            il = it = ir = ib = 0;
         }
 
         int pl, pt, pr, pb;
@@ -928,15 +1346,31 @@ public class PhoneWindowManager implements WindowManagerPolicy {
             db = 100000;
         }
 
+        final LayoutCache cache = display.layoutCache;
+        if (cache != null && !cache.needsLayout(win, attrs,
+                il, it, ir, ib, pl, pt, pr, pb, dl, dt, dr, db)) {
+            return;
+        }
+
+        win.setCoveredInsetsLw(il, it, ir, ib);
         win.computeFrameLw(pl, pt, pr, pb, dl, dt, dr, db);
     }
 
     /** {@inheritDoc} */
     public void finishLayoutLw() {
+        finishLayoutLw(DisplayLayoutContext.DEFAULT_DISPLAY);
+    }
+
+    /**
+     * Like {@link #finishLayoutLw()}, for the given display.
+     */
+    public void finishLayoutLw(int displayId) {
     }
 
     /** {@inheritDoc} */
     public void beginAnimationLw(int displayWidth, int displayHeight) {
+        // Windows can start or stop being displayed between layouts (a
+        // surface is drawn, an animation ends), so look again every pass.
         mTopFullscreenOpaqueWindowState = null;
         mForceStatusBar = false;
     }
@@ -947,7 +1381,7 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         if (mTopFullscreenOpaqueWindowState == null
             && attrs.type >= FIRST_APPLICATION_WINDOW
             && attrs.type <= LAST_APPLICATION_WINDOW
-            && win.fillsScreenLw(mW, mH, true)
+            && win.fillsScreenLw(mDefaultDisplay.w, mDefaultDisplay.h, true)
             && win.isDisplayedLw()) {
             mTopFullscreenOpaqueWindowState = win;
         } else if ((attrs.flags & FLAG_FORCE_NOT_FULLSCREEN) != 0) {
@@ -957,32 +1391,56 @@ public class PhoneWindowManager implements WindowManagerPolicy {
 
     /** {@inheritDoc} */
     public boolean finishAnimationLw() {
-        if (mStatusBar != null) {
+        final long start = mLatencyStats.start();
+        try {
+            return doFinishAnimationLw();
+        } finally {
+            mLatencyStats.end(LatencyStats.FINISH_ANIMATION, start);
+        }
+    }
+
+    private boolean doFinishAnimationLw() {
+        final WindowState statusBar = mDefaultDisplay.statusBar;
+        if (statusBar != null) {
             if (mForceStatusBar) {
-                mStatusBar.showLw();
+                setStatusBarShownLw(statusBar, true);
             } else if (mTopFullscreenOpaqueWindowState != null) {
                WindowManager.LayoutParams lp =
                    mTopFullscreenOpaqueWindowState.getAttrs();
                boolean hideStatusBar =
                    (lp.flags & WindowManager.LayoutParams.FLAG_FULLSCREEN) != 0;
-               if (hideStatusBar) {
-                   mStatusBar.hideLw();
-               } else {
-                   mStatusBar.showLw();
-               }
+               setStatusBarShownLw(statusBar, !hideStatusBar);
            }
         }
        return false;
     }
 
+    /**
+     * Show or hide the status bar, unless that is what we last asked for.
+     */
+    private void setStatusBarShownLw(WindowState statusBar, boolean shown) {
+        final int state = shown ? STATUS_BAR_SHOWN : STATUS_BAR_HIDDEN;
+        if (mStatusBarState == state) {
+            return;
+        }
+        mStatusBarState = state;
+        if (shown) {
+            statusBar.showLw();
+        } else {
+            statusBar.hideLw();
+        }
+    }
+
     /** {@inheritDoc} */
     public boolean preprocessInputEventTq(RawInputEvent event) {
+        if (mInputRecorder != null) {
+            mInputRecorder.recordPreprocessTq(event, mScreenOn, keyguardIsShowingTq());
+        }
         switch (event.type) {
             case RawInputEvent.EV_SW:
                 if (event.keycode == 0) {
                     // lid changed state
-                    mLidOpen = event.value == 0;
-                    updateRotation();
+                    mRotationState.onLidSwitchTq(event.value == 0);
                 }
         }
         return false;
@@ -1008,25 +1466,43 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     }
 
 
+    /**
+     * The last call state reported by the telephony registry.  Read on the
+     * input thread instead of asking the phone process, which may be slow.
+     */
+    private volatile int mCallState = TelephonyManager.CALL_STATE_IDLE;
+
+    /**
+     * Created in {@link #init} since PhoneStateListener needs a looper.
+     */
+    private PhoneStateListener mPhoneStateListener;
+
+    private final Runnable mEndCall = new Runnable() {
+        public void run() {
+            try {
+                ITelephony phoneServ = getPhoneInterface();
+                if (phoneServ != null) {
+                    phoneServ.endCall();
+                } else {
+                    Log.w(TAG, "!!! Unable to find ITelephony interface !!!");
+                }
+            } catch (RemoteException ex) {
+                Log.w(TAG, "ITelephony.endCall() threw RemoteException" + ex);
+            }
+        }
+    };
+
     /**
      * @return Whether a telephone call is in progress right now.
      */
     private boolean isInCall() {
-        final ITelephony phone = getPhoneInterface();
-        if (phone == null) {
-            Log.w(TAG, "couldn't get ITelephony reference");
-            return false;
-        }
-        try {
-            return phone.isOffhook();
-        } catch (RemoteException e) {
-            Log.w(TAG, "ITelephony.isOffhhook threw RemoteException " + e);
-            return false;
-        }
+        return mCallState == TelephonyManager.CALL_STATE_OFFHOOK;
     }
 
     /**
-     * @return Whether music is being played right now.
+     * @return Whether music is being played right now.  The audio service
+     *   doesn't tell anyone when this changes, so it is asked each time; this
+     *   is only called for volume keys while the screen is off.
      */
     private boolean isMusicActive() {
         final IAudioService audio = getAudioInterface();
@@ -1044,34 +1520,51 @@ public class PhoneWindowManager implements WindowManagerPolicy {
 
     /**
      * Tell the audio service to adjust the volume appropriate to the event.
+     * The call is made from {@link #mHandler}, not the calling thread.
      * @param keycode
      */
-    private void sendVolToMusic(int keycode) {
-        final IAudioService audio = getAudioInterface();
-        if (audio == null) {
-            Log.w(TAG, "sendVolToMusic: couldn't get IAudioService reference");
-            return;
+    private void sendVolToMusic(final int keycode) {
+        // since audio is playing, we shouldn't have to hold a wake lock
+        // during the call, but we do it as a precaution for the rare possibility
+        // that the music stops right before we call this
+        mBroadcastWakeLock.acquire();
+        mHandler.post(new Runnable() {
+            public void run() {
+                try {
+                    final IAudioService audio = getAudioInterface();
+                    if (audio == null) {
+                        Log.w(TAG, "sendVolToMusic: couldn't get IAudioService reference");
+                        return;
+                    }
+                    audio.adjustStreamVolume(
+                        AudioManager.STREAM_MUSIC,
+                        keycode == KeyEvent.KEYCODE_VOLUME_UP
+                                    ? AudioManager.ADJUST_RAISE
+                                    : AudioManager.ADJUST_LOWER,
+                            0);
+                } catch (RemoteException e) {
+                    Log.w(TAG, "IAudioService.adjustStreamVolume() threw RemoteException " + e);
+                } finally {
+                    mBroadcastWakeLock.release();
+                }
+            }
+        });
+    }
+
+    /** {@inheritDoc} */
+    public int interceptKeyTq(RawInputEvent event, boolean screenIsOn) {
+        if (mInputRecorder != null) {
+            mInputRecorder.recordKeyTq(event, screenIsOn, keyguardIsShowingTq());
         }
+        final long start = mLatencyStats.start();
         try {
-            // since audio is playing, we shouldn't have to hold a wake lock
-            // during the call, but we do it as a precaution for the rare possibility
-            // that the music stops right before we call this
-            mBroadcastWakeLock.acquire();
-            audio.adjustStreamVolume(
-                AudioManager.STREAM_MUSIC,
-                keycode == KeyEvent.KEYCODE_VOLUME_UP
-                            ? AudioManager.ADJUST_RAISE
-                            : AudioManager.ADJUST_LOWER,
-                    0);
-        } catch (RemoteException e) {
-            Log.w(TAG, "IAudioService.adjustStreamVolume() threw RemoteException " + e);
+            return doInterceptKeyTq(event, screenIsOn);
         } finally {
-            mBroadcastWakeLock.release();
+            mLatencyStats.end(LatencyStats.INTERCEPT_KEY_TQ, start);
         }
     }
 
-    /** {@inheritDoc} */
-    public int interceptKeyTq(RawInputEvent event, boolean screenIsOn) {
+    private int doInterceptKeyTq(RawInputEvent event, boolean screenIsOn) {
         int result = ACTION_PASS_TO_USER;
         final boolean isWakeKey = isWakeKeyTq(event);
         final boolean keyguardShowing = keyguardIsShowingTq();
@@ -1092,8 +1585,7 @@ public class PhoneWindowManager implements WindowManagerPolicy {
                     // turn on the screen depending on whether the key is
                     // appropriate.
                     if (!mKeyguardMediator.onWakeKeyWhenKeyguardShowingTq(event.keycode)
-                            && (event.keycode == KeyEvent.KEYCODE_VOLUME_DOWN
-                                || event.keycode == KeyEvent.KEYCODE_VOLUME_UP)) {
+                            && KeyClassifier.is(event.keycode, KeyClassifier.VOLUME)) {
                         if (isInCall()) {
                             // if the keyguard didn't wake the device, we are in call, and
                             // it is a volume key, turn on the screen so that the user
@@ -1123,31 +1615,26 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         if (type == RawInputEvent.EV_KEY) {
             if (code == KeyEvent.KEYCODE_ENDCALL) {
                 if (down) {
-                    boolean hungUp = false;
                     // key repeats are generated by the window manager, and we don't see them
                     // here, so unless the driver is doing something it shouldn't be, we know
                     // this is the real press event.
-                    try {
-                        ITelephony phoneServ = getPhoneInterface();
-                        if (phoneServ != null) {
-                            hungUp = phoneServ.endCall();
-                        } else {
-                            Log.w(TAG, "!!! Unable to find ITelephony interface !!!");
-                        }
-                    } catch (RemoteException ex) {
-                        Log.w(TAG, "ITelephony.endCall() threw RemoteException" + ex);
+                    // If there is a call to end, hang it up from the handler so a slow
+                    // phone process can't hold up the input thread.
+                    final boolean hungUp = mCallState != TelephonyManager.CALL_STATE_IDLE;
+                    if (hungUp) {
+                        mHandler.post(mEndCall);
                     }
                     if (hungUp || !screenIsOn) {
                         mShouldTurnOffOnKeyUp = false;
                     } else {
                         // only try to turn off the screen if we didn't already hang up
                         mShouldTurnOffOnKeyUp = true;
-                        mHandler.postDelayed(mEndCallLongPress,
+                        mLongPressTimer.keyDown(code, mEndCallLongPress, null,
                                 ViewConfiguration.getGlobalActionKeyTimeout());
                         result &= ~ACTION_PASS_TO_USER;
                     }
                 } else {
-                    mHandler.removeCallbacks(mEndCallLongPress);
+                    mLongPressTimer.cancel(KeyEvent.KEYCODE_ENDCALL);
                     if (mShouldTurnOffOnKeyUp) {
                         mShouldTurnOffOnKeyUp = false;
                         boolean gohome = (mEndcallBehavior & ENDCALL_HOME) != 0;
@@ -1173,11 +1660,7 @@ public class PhoneWindowManager implements WindowManagerPolicy {
                     // Only do this if we would otherwise not pass it to the user. In that
                     // case, the PhoneWindow class will do the same thing, except it will
                     // only do it if the showing app doesn't process the key on its own.
-                    KeyEvent keyEvent = new KeyEvent(event.when, event.when,
-                            down ? KeyEvent.ACTION_DOWN : KeyEvent.ACTION_UP,
-                            KeyEvent.KEYCODE_HEADSETHOOK, 0);
-                    mBroadcastWakeLock.acquire();
-                    mHandler.post(new PassHeadsetKey(keyEvent));
+                    mMediaButtonDispatcher.dispatchHeadsetHookTq(event.when, down);
                 }
             }
         }
@@ -1185,27 +1668,6 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         return result;
     }
 
-    class PassHeadsetKey implements Runnable {
-        KeyEvent mKeyEvent;
-
-        PassHeadsetKey(KeyEvent keyEvent) {
-            mKeyEvent = keyEvent;
-        }
-
-        public void run() {
-            Intent intent = new Intent(Intent.ACTION_MEDIA_BUTTON, null);
-            intent.putExtra(Intent.EXTRA_KEY_EVENT, mKeyEvent);
-            mContext.sendOrderedBroadcast(intent, null, mBroadcastDone,
-                    mHandler, Activity.RESULT_OK, null, null);
-        }
-    }
-
-    private BroadcastReceiver mBroadcastDone = new BroadcastReceiver() {
-        public void onReceive(Context context, Intent intent) {
-            mBroadcastWakeLock.release();
-        }
-    };
-    
     /** {@inheritDoc} */
     public boolean isWakeRelMovementTq(int device, int classes,
             RawInputEvent event) {
@@ -1225,14 +1687,11 @@ public class PhoneWindowManager implements WindowManagerPolicy {
      */
     protected boolean isWakeKeyTq(RawInputEvent event) {
         // There are not key maps for trackball devices, but we'd still
-        // like to have pressing it wake the device up, so force it here.
-        int keycode = event.keycode;
-        int flags = event.flags;
-        if (keycode == RawInputEvent.BTN_MOUSE) {
-            flags |= WindowManagerPolicy.FLAG_WAKE;
-        }
-        return (flags
-                & (WindowManagerPolicy.FLAG_WAKE | WindowManagerPolicy.FLAG_WAKE_DROPPED)) != 0;
+        // like to have pressing it wake the device up, so KeyClassifier
+        // forces it.
+        return (event.flags
+                & (WindowManagerPolicy.FLAG_WAKE | WindowManagerPolicy.FLAG_WAKE_DROPPED)) != 0
+                || KeyClassifier.is(event.keycode, KeyClassifier.FORCE_WAKE);
     }
 
     /** {@inheritDoc} */
@@ -1240,6 +1699,10 @@ public class PhoneWindowManager implements WindowManagerPolicy {
         EventLog.writeEvent(70000, 0);
         mKeyguardMediator.onScreenTurnedOff(why);
         mScreenOn = false;
+        mResetChords = true;
+        if (mInputRecorder != null) {
+            mInputRecorder.flush();
+        }
         updateOrientationListener();
     }
 
@@ -1276,6 +1739,15 @@ public class PhoneWindowManager implements WindowManagerPolicy {
      */
     public void onKeyguardShow() {
         sendCloseSystemWindows();
+        // Nothing behind the keyguard can rotate until it goes away.
+        mOrientationSampler.setPaused(true);
+    }
+
+    /**
+     * Callback from {@link KeyguardViewMediator}
+     */
+    public void onKeyguardHide() {
+        mOrientationSampler.setPaused(false);
     }
 
     private void sendCloseSystemWindows() {
@@ -1283,37 +1755,11 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     }
 
     private void sendCloseSystemWindows(String reason) {
-        Intent intent = new Intent(Intent.ACTION_CLOSE_SYSTEM_DIALOGS);
-        if (reason != null) {
-            intent.putExtra(SYSTEM_DIALOG_REASON_KEY, reason);
-        }
-        mContext.sendBroadcast(intent);
+        mCloseSystemDialogs.closeSystemDialogs(reason);
     }
 
     public int rotationForOrientation(int orientation) {
-        switch (orientation) {
-            case ActivityInfo.SCREEN_ORIENTATION_LANDSCAPE:
-                //always return landscape if orientation set to landscape
-                return Surface.ROTATION_90;
-            case ActivityInfo.SCREEN_ORIENTATION_PORTRAIT:
-                //always return portrait if orientation set to portrait
-                return Surface.ROTATION_0;
-            case ActivityInfo.SCREEN_ORIENTATION_SENSOR:
-                if(mOrientationSensorEnabled) {
-                    //consider only sensor based orientation keyboard slide ignored
-                    return mSensorRotation >= 0 ? mSensorRotation : Surface.ROTATION_0;
-                }
-                //if orientation sensor is disabled fall back to default behaviour
-                //based on lid
-        }
-        // case for nosensor meaning ignore sensor and consider only lid
-        // or orientation sensor disabled
-        //or case.unspecified
-        if(mLidOpen) {
-            return Surface.ROTATION_90;
-        } else {
-            return Surface.ROTATION_0;
-        }
+        return mRotationState.rotationForOrientation(orientation);
     }
     
     /** {@inheritDoc} */
@@ -1337,40 +1783,7 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     
     /** {@inheritDoc} */
     public void enableScreenAfterBoot() {
-        readLidState();
-        updateRotation();
-    }
-    
-    private void updateRotation() {
-        mPowerManager.setKeyboardVisibility(mLidOpen);
-        int rotation=  Surface.ROTATION_0;
-        if (mLidOpen) {
-            // always use landscape if lid is open             
-            rotation = Surface.ROTATION_90;
-        }
-        //if lid is closed orientation will be portrait
-        try {
-            //set orientation on WindowManager
-            mWindowManager.setRotation(rotation, true);
-        } catch (RemoteException e) {
-            // Ignore
-        }
-        if (keyguardIsShowingTq()) {
-            if (mLidOpen) {
-                // only do this if it's opening -- closing the device shouldn't turn it
-                // off, but it also shouldn't turn it on.
-                mKeyguardMediator.pokeWakelock();
-            }
-        } else {
-            // Light up the keyboard if we are sliding up.
-            if (mLidOpen) {
-                mPowerManager.userActivity(SystemClock.uptimeMillis(), false,
-                        LocalPowerManager.BUTTON_EVENT);
-            } else {
-                mPowerManager.userActivity(SystemClock.uptimeMillis(), false,
-                        LocalPowerManager.OTHER_EVENT);
-            }
-        }
+        mRotationState.refreshLid();
     }
 
     /**
@@ -1401,9 +1814,55 @@ public class PhoneWindowManager implements WindowManagerPolicy {
     }
     
     public void setCurrentOrientation(int newOrientation) {
-        if(newOrientation != mCurrentAppOrientation) {
-            mCurrentAppOrientation = newOrientation;
+        if(mRotationState.setAppOrientation(newOrientation)) {
             updateOrientationListener();
         }
     }
+
+    LatencyStats getLatencyStats() {
+        return mLatencyStats;
+    }
+
+    /**
+     * Print the policy's hot-path latencies and service lookup counts.
+     */
+    public void dump(PrintWriter pw) {
+        pw.println("PhoneWindowManager latency:");
+        mLatencyStats.dump("  ", pw);
+        pw.println("PhoneWindowManager services:");
+        dumpServiceHandle("  ", pw, mPhoneService);
+        dumpServiceHandle("  ", pw, mAudioService);
+        pw.println("PhoneWindowManager orientation:");
+        mOrientationFilter.dump("  ", pw);
+        mOrientationSampler.dump("  ", pw);
+        pw.println("PhoneWindowManager rotation:");
+        mRotationState.dump("  ", pw);
+        pw.println("PhoneWindowManager starting windows:");
+        mStartingWindows.dump("  ", pw);
+        pw.println("PhoneWindowManager window layers:");
+        mLayerTable.dump("  ", pw);
+        if (mIncrementalLayout) {
+            pw.println("PhoneWindowManager incremental layout:");
+            dumpLayoutCache("  ", pw, mDefaultDisplay);
+            synchronized (mDisplays) {
+                for (int i = 0; i < mDisplays.size(); i++) {
+                    dumpLayoutCache("  ", pw, mDisplays.valueAt(i));
+                }
+            }
+        }
+    }
+
+    private static void dumpLayoutCache(String prefix, PrintWriter pw,
+            DisplayLayoutContext display) {
+        pw.print(prefix); pw.print("display "); pw.print(display.displayId); pw.println(":");
+        display.layoutCache.dump(prefix + "  ", pw);
+    }
+
+    private static void dumpServiceHandle(String prefix, PrintWriter pw,
+            CachedServiceHandle<?> handle) {
+        pw.print(prefix); pw.print(handle.getName());
+        pw.print(": hits="); pw.print(handle.getHitCount());
+        pw.print(" misses="); pw.print(handle.getMissCount());
+        pw.print(" rebinds="); pw.println(handle.getRebindCount());
+    }
 }
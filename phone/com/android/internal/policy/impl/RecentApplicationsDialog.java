@@ -40,7 +40,8 @@ import android.widget.TextView;
 
 import java.util.List;
 
-public class RecentApplicationsDialog extends Dialog implements OnClickListener {
+public class RecentApplicationsDialog extends Dialog implements OnClickListener,
+        CloseSystemDialogsDispatcher.Listener {
     // Elements for debugging support
 //  private static final String LOG_TAG = "RecentApplicationsDialog";
     private static final boolean DBG_FORCE_EMPTY_LIST = false;
@@ -243,11 +244,24 @@ public class RecentApplicationsDialog extends Dialog implements OnClickListener
         public void onReceive(Context context, Intent intent) {
             String action = intent.getAction();
             if (Intent.ACTION_CLOSE_SYSTEM_DIALOGS.equals(action)) {
-                String reason = intent.getStringExtra(PhoneWindowManager.SYSTEM_DIALOG_REASON_KEY);
-                if (! PhoneWindowManager.SYSTEM_DIALOG_REASON_RECENT_APPS.equals(reason)) {
-                    dismiss();
+                // the policy tells us about its own requests directly
+                if (intent.getBooleanExtra(
+                        CloseSystemDialogsDispatcher.EXTRA_FROM_POLICY, false)) {
+                    return;
                 }
+                onCloseSystemDialogs(
+                        intent.getStringExtra(PhoneWindowManager.SYSTEM_DIALOG_REASON_KEY));
             }
         }
     };
+
+    /**
+     * Called directly by the policy for its own close requests, and by
+     * {@link #mBroadcastReceiver} for everyone else's.
+     */
+    public void onCloseSystemDialogs(String reason) {
+        if (! PhoneWindowManager.SYSTEM_DIALOG_REASON_RECENT_APPS.equals(reason)) {
+            dismiss();
+        }
+    }
 }
@@ -0,0 +1,412 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.content.pm.ActivityInfo;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Message;
+import android.os.SystemClock;
+import android.view.OrientationListener;
+import android.view.Surface;
+import android.view.WindowManagerPolicy;
+
+import java.io.PrintWriter;
+
+/**
+ * Owns the inputs that decide the screen rotation and keyboard visibility:
+ * the lid, the sensor rotation and the orientation the app in front asked
+ * for.
+ *
+ * Inputs may arrive on any thread.  Changes that need the window manager or
+ * power manager told are made on the machine's looper, without holding the
+ * machine's lock, so the window manager can call
+ * {@link #rotationForOrientation} with its own lock held at any time.
+ *
+ * Lid switch events are coalesced: the first starts a short timer and the
+ * lid is read from the last one when it fires, so a bouncing switch causes
+ * one change or none.  The lid state is kept rather than read back from the
+ * switch each time it is needed.  Each real lid change makes one rotation
+ * request and at most one keyboard visibility change; a sensor change makes
+ * a rotation request only if it changes the rotation in use.
+ *
+ * Every transition is kept in a small ring buffer for the policy dump.
+ */
+class RotationStateMachine {
+    /**
+     * Where the changes go.  Called on the machine's looper, except for
+     * {@link #readLidSwitch} and the keyboard visibility change made by
+     * {@link RotationStateMachine#syncKeyboardVisibility}.
+     */
+    interface Callbacks {
+        /**
+         * @return 0 if the lid is open, greater than 0 if it is closed, or
+         *   less than 0 if the switch can't be read.
+         */
+        int readLidSwitch();
+
+        void setKeyboardVisibility(boolean visible);
+
+        /**
+         * @param rotation A Surface.ROTATION_* constant, or
+         *   {@link WindowManagerPolicy#USE_LAST_ROTATION}.
+         */
+        void setRotation(int rotation, boolean alwaysSendConfiguration);
+
+        /**
+         * The lid really changed, after any rotation request for it.
+         */
+        void onLidChanged(boolean open);
+    }
+
+    /** How long lid switch events are gathered before the lid is read. */
+    static final long LID_COALESCE_MS = 50;
+
+    private static final int LID_UNKNOWN = -1;
+    private static final int LID_CLOSED = 0;
+    private static final int LID_OPEN = 1;
+
+    private static final int MSG_LID = 1;
+    private static final int MSG_SENSOR = 2;
+
+    // Trace events.  The two values logged with each are noted.
+    private static final int TRACE_LID_EVENT = 0;        // open, 0
+    private static final int TRACE_LID_CHANGED = 1;      // open, events coalesced
+    private static final int TRACE_LID_UNCHANGED = 2;    // open, events coalesced
+    private static final int TRACE_SENSOR = 3;           // sensor rotation, 0
+    private static final int TRACE_SENSOR_ENABLED = 4;   // enabled, 0
+    private static final int TRACE_APP_ORIENTATION = 5;  // orientation, 0
+    private static final int TRACE_ROTATION = 6;         // rotation, previous rotation
+    private static final int TRACE_SET_ROTATION = 7;     // requested rotation, always send
+    private static final int TRACE_KEYBOARD = 8;         // visible, 0
+
+    private static final String[] TRACE_NAMES = {
+        "lid-event", "lid-changed", "lid-unchanged", "sensor", "sensor-enabled",
+        "app-orientation", "rotation", "set-rotation", "keyboard",
+    };
+
+    private static final int TRACE_SIZE = 32;
+
+    private final Callbacks mCallbacks;
+    private final Handler mHandler;
+
+    // these are protected by synchronized (this)
+    private int mLid = LID_UNKNOWN;
+    private int mPendingLid = LID_UNKNOWN;
+    private int mPendingLidEvents;
+    private boolean mForceLidCommit;
+    private int mSensorRotation = -1;
+    /** The smoothed sensor angle, or OrientationListener.ORIENTATION_UNKNOWN. */
+    private int mSensorAngle = OrientationListener.ORIENTATION_UNKNOWN;
+    private boolean mSensorEnabled;
+    private int mAppOrientation = ActivityInfo.SCREEN_ORIENTATION_UNSPECIFIED;
+    /** The rotation last given to the window manager, or -1. */
+    private int mRotation = -1;
+    /** The keyboard visibility last set, or LID_UNKNOWN. */
+    private int mKeyboard = LID_UNKNOWN;
+
+    private long mLidEvents;
+    private long mLidChanges;
+    private long mRotationRequests;
+    private long mRotationRequestsSkipped;
+
+    private final long[] mTraceTimes = new long[TRACE_SIZE];
+    private final int[] mTraceEvents = new int[TRACE_SIZE];
+    private final int[] mTraceArg1 = new int[TRACE_SIZE];
+    private final int[] mTraceArg2 = new int[TRACE_SIZE];
+    private int mTraceNext;
+    private int mTraceCount;
+
+    RotationStateMachine(Looper looper, Callbacks callbacks) {
+        mCallbacks = callbacks;
+        mHandler = new Handler(looper) {
+            @Override
+            public void handleMessage(Message msg) {
+                switch (msg.what) {
+                    case MSG_LID:
+                        commitLid();
+                        break;
+                    case MSG_SENSOR:
+                        commitSensor();
+                        break;
+                }
+            }
+        };
+    }
+
+    /**
+     * The lid switch moved.
+     */
+    void onLidSwitchTq(boolean open) {
+        synchronized (this) {
+            mLidEvents++;
+            mPendingLid = open ? LID_OPEN : LID_CLOSED;
+            trace(TRACE_LID_EVENT, open ? 1 : 0, 0);
+            if (mPendingLidEvents++ > 0) {
+                return;
+            }
+        }
+        mHandler.sendEmptyMessageDelayed(MSG_LID, LID_COALESCE_MS);
+    }
+
+    /**
+     * Read the lid switch and apply it even if the lid hasn't changed, as
+     * when the screen is first turned on.
+     */
+    void refreshLid() {
+        final int sw = mCallbacks.readLidSwitch();
+        synchronized (this) {
+            if (sw >= 0) {
+                mPendingLid = sw == 0 ? LID_OPEN : LID_CLOSED;
+            } else if (mPendingLidEvents == 0) {
+                mPendingLid = mLid == LID_OPEN ? LID_OPEN : LID_CLOSED;
+            }
+            mForceLidCommit = true;
+            mPendingLidEvents++;
+        }
+        mHandler.removeMessages(MSG_LID);
+        mHandler.sendEmptyMessage(MSG_LID);
+    }
+
+    /**
+     * @return Whether the lid is open.  The switch is only read if no lid
+     *   state is known yet.
+     */
+    boolean isLidOpen() {
+        synchronized (this) {
+            if (mLid != LID_UNKNOWN) {
+                return mLid == LID_OPEN;
+            }
+        }
+        final int sw = mCallbacks.readLidSwitch();
+        synchronized (this) {
+            if (mLid == LID_UNKNOWN && sw >= 0) {
+                mLid = sw == 0 ? LID_OPEN : LID_CLOSED;
+            }
+            return mLid == LID_OPEN;
+        }
+    }
+
+    /**
+     * Set the keyboard visibility from the lid if it hasn't been already.
+     * Runs on the calling thread.
+     */
+    void syncKeyboardVisibility() {
+        final boolean open = isLidOpen();
+        if (claimKeyboard(open)) {
+            mCallbacks.setKeyboardVisibility(open);
+        }
+    }
+
+    private synchronized boolean claimKeyboard(boolean open) {
+        final int keyboard = open ? LID_OPEN : LID_CLOSED;
+        if (mKeyboard == keyboard) {
+            return false;
+        }
+        mKeyboard = keyboard;
+        trace(TRACE_KEYBOARD, open ? 1 : 0, 0);
+        return true;
+    }
+
+    /**
+     * The orientation sensor reports a new rotation.
+     */
+    void onSensorRotation(int rotation) {
+        synchronized (this) {
+            if (rotation == mSensorRotation) {
+                return;
+            }
+            mSensorRotation = rotation;
+            trace(TRACE_SENSOR, rotation, 0);
+        }
+        mHandler.removeMessages(MSG_SENSOR);
+        mHandler.sendEmptyMessage(MSG_SENSOR);
+    }
+
+    /**
+     * Whether the sensor rotation is used for apps that ask for it.  The
+     * last sensor rotation is kept while it isn't.
+     */
+    synchronized void setSensorEnabled(boolean enabled) {
+        if (enabled != mSensorEnabled) {
+            mSensorEnabled = enabled;
+            trace(TRACE_SENSOR_ENABLED, enabled ? 1 : 0, 0);
+        }
+    }
+
+    synchronized boolean isSensorEnabled() {
+        return mSensorEnabled;
+    }
+
+    /**
+     * The app in front asked for <var>orientation</var>, an
+     * ActivityInfo.SCREEN_ORIENTATION_* constant.
+     *
+     * @return Whether that is a change.
+     */
+    synchronized boolean setAppOrientation(int orientation) {
+        if (orientation == mAppOrientation) {
+            return false;
+        }
+        mAppOrientation = orientation;
+        trace(TRACE_APP_ORIENTATION, orientation, 0);
+        return true;
+    }
+
+    synchronized int getAppOrientation() {
+        return mAppOrientation;
+    }
+
+    /**
+     * The smoothed angle from the sensor, in degrees; kept for dumps.
+     */
+    synchronized void setSensorAngle(int angle) {
+        mSensorAngle = angle;
+    }
+
+    synchronized int getSensorAngle() {
+        return mSensorAngle;
+    }
+
+    /**
+     * @see WindowManagerPolicy#rotationForOrientation
+     */
+    int rotationForOrientation(int orientation) {
+        final boolean lidOpen = isLidOpen();
+        synchronized (this) {
+            final int rotation = computeRotation(orientation, lidOpen);
+            if (rotation != mRotation) {
+                trace(TRACE_ROTATION, rotation, mRotation);
+                mRotation = rotation;
+            }
+            return rotation;
+        }
+    }
+
+    private int computeRotation(int orientation, boolean lidOpen) {
+        switch (orientation) {
+            case ActivityInfo.SCREEN_ORIENTATION_LANDSCAPE:
+                //always return landscape if orientation set to landscape
+                return Surface.ROTATION_90;
+            case ActivityInfo.SCREEN_ORIENTATION_PORTRAIT:
+                //always return portrait if orientation set to portrait
+                return Surface.ROTATION_0;
+            case ActivityInfo.SCREEN_ORIENTATION_SENSOR:
+                if (mSensorEnabled) {
+                    //consider only sensor based orientation keyboard slide ignored
+                    return mSensorRotation >= 0 ? mSensorRotation : Surface.ROTATION_0;
+                }
+                //if orientation sensor is disabled fall back to default behaviour
+                //based on lid
+        }
+        // case for nosensor meaning ignore sensor and consider only lid
+        // or orientation sensor disabled
+        //or case.unspecified
+        return lidOpen ? Surface.ROTATION_90 : Surface.ROTATION_0;
+    }
+
+    private void commitLid() {
+        final boolean open;
+        final boolean setKeyboard;
+        synchronized (this) {
+            final int events = mPendingLidEvents;
+            mPendingLidEvents = 0;
+            if (mPendingLid == LID_UNKNOWN) {
+                return;
+            }
+            open = mPendingLid == LID_OPEN;
+            final boolean changed = mPendingLid != mLid;
+            if (!changed && !mForceLidCommit) {
+                trace(TRACE_LID_UNCHANGED, open ? 1 : 0, events);
+                return;
+            }
+            mForceLidCommit = false;
+            mLid = mPendingLid;
+            if (changed) {
+                mLidChanges++;
+            }
+            trace(TRACE_LID_CHANGED, open ? 1 : 0, events);
+            setKeyboard = claimKeyboard(open);
+        }
+        if (setKeyboard) {
+            mCallbacks.setKeyboardVisibility(open);
+        }
+        // The keyboard configuration has changed even if the rotation
+        // hasn't, so always send it.
+        requestRotation(open ? Surface.ROTATION_90 : Surface.ROTATION_0, true);
+        mCallbacks.onLidChanged(open);
+    }
+
+    private void commitSensor() {
+        final boolean lidOpen = isLidOpen();
+        synchronized (this) {
+            if (computeRotation(mAppOrientation, lidOpen) == mRotation) {
+                // The app in front doesn't follow the sensor, or the sensor
+                // came back to where it was.
+                mRotationRequestsSkipped++;
+                return;
+            }
+        }
+        // The lid rotation hasn't changed, but we want the window manager to
+        // re-evaluate the final rotation in case it needs to call back and
+        // get the sensor orientation.
+        requestRotation(WindowManagerPolicy.USE_LAST_ROTATION, false);
+    }
+
+    private void requestRotation(int rotation, boolean alwaysSendConfiguration) {
+        synchronized (this) {
+            mRotationRequests++;
+            trace(TRACE_SET_ROTATION, rotation, alwaysSendConfiguration ? 1 : 0);
+        }
+        mCallbacks.setRotation(rotation, alwaysSendConfiguration);
+    }
+
+    private void trace(int event, int arg1, int arg2) {
+        final int i = mTraceNext;
+        mTraceTimes[i] = SystemClock.uptimeMillis();
+        mTraceEvents[i] = event;
+        mTraceArg1[i] = arg1;
+        mTraceArg2[i] = arg2;
+        mTraceNext = (i + 1) % TRACE_SIZE;
+        if (mTraceCount < TRACE_SIZE) {
+            mTraceCount++;
+        }
+    }
+
+    synchronized void dump(String prefix, PrintWriter pw) {
+        pw.print(prefix); pw.print("lid=");
+                pw.print(mLid == LID_UNKNOWN ? "unknown" : mLid == LID_OPEN ? "open" : "closed");
+                pw.print(" sensorRotation="); pw.print(mSensorRotation);
+                pw.print(" sensorAngle="); pw.print(mSensorAngle);
+                pw.print(" sensorEnabled="); pw.print(mSensorEnabled);
+                pw.print(" appOrientation="); pw.print(mAppOrientation);
+                pw.print(" rotation="); pw.println(mRotation);
+        pw.print(prefix); pw.print("lidEvents="); pw.print(mLidEvents);
+                pw.print(" lidChanges="); pw.print(mLidChanges);
+                pw.print(" rotationRequests="); pw.print(mRotationRequests);
+                pw.print(" skipped="); pw.println(mRotationRequestsSkipped);
+        final long now = SystemClock.uptimeMillis();
+        int i = (mTraceNext - mTraceCount + TRACE_SIZE) % TRACE_SIZE;
+        for (int n = 0; n < mTraceCount; n++) {
+            pw.print(prefix); pw.print("  -"); pw.print(now - mTraceTimes[i]);
+                    pw.print("ms "); pw.print(TRACE_NAMES[mTraceEvents[i]]);
+                    pw.print(" "); pw.print(mTraceArg1[i]);
+                    pw.print(" "); pw.println(mTraceArg2[i]);
+            i = (i + 1) % TRACE_SIZE;
+        }
+    }
+}
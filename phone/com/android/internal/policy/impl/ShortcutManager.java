@@ -21,51 +21,137 @@ import android.content.Intent;
 import android.database.ContentObserver;
 import android.database.Cursor;
 import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
 import android.provider.Settings;
 import android.util.Log;
 import android.util.SparseArray;
 import android.view.KeyCharacterMap;
 
 import java.net.URISyntaxException;
+import java.util.HashMap;
 
 /**
  * Manages quick launch shortcuts by:
  * <li> Keeping the local copy in sync with the database (this is an observer)
  * <li> Returning a shortcut-matching intent to clients
+ * <p>
+ * The bookmarks are reloaded on a background thread when they change.  Rows
+ * whose intent URI hasn't changed keep their {@link Entry} (and its parsed
+ * intent), so only new and changed URIs are parsed, rows whose URI doesn't
+ * parse are left out, and the new set of shortcuts is published with a
+ * single reference swap, so {@link #getIntent} never waits on a reload.
  */
 class ShortcutManager extends ContentObserver {
     
     private static final String TAG = "ShortcutManager";
     
-    private static final int COLUMN_SHORTCUT = 0;
-    private static final int COLUMN_INTENT = 1;
+    private static final int COLUMN_ID = 0;
+    private static final int COLUMN_SHORTCUT = 1;
+    private static final int COLUMN_INTENT = 2;
     private static final String[] sProjection = new String[] {
-        Settings.Bookmarks.SHORTCUT, Settings.Bookmarks.INTENT
+        Settings.Bookmarks._ID, Settings.Bookmarks.SHORTCUT, Settings.Bookmarks.INTENT
     };
 
     private Context mContext;
+
+    /** Only used on {@link #mWorker}. */
     private Cursor mCursor;
-    /** Map of a shortcut to its intent. */
-    private SparseArray<Intent> mShortcutIntents;
+
+    /** Rows from the last reload by ID; only used on {@link #mWorker}. */
+    private HashMap<Long, Entry> mEntriesById = new HashMap<Long, Entry>();
+
+    /** The current set of shortcuts, replaced as a whole by each reload. */
+    private volatile Shortcuts mShortcuts = new Shortcuts(new SparseArray<Entry>());
+
+    private Handler mWorker;
+
+    /**
+     * The built-in keyboard's character map, loaded on the first lookup.
+     * The built-in keyboard's layout doesn't change while we're running.
+     */
+    private KeyCharacterMap mKeyCharacterMap;
+
+    /**
+     * A bookmark row with a valid intent.
+     */
+    private static final class Entry {
+        final String intentUri;
+        final Intent intent;
+
+        private Entry(String intentUri, Intent intent) {
+            this.intentUri = intentUri;
+            this.intent = intent;
+        }
+
+        /**
+         * @return The entry for <var>intentUri</var>, or null if it isn't a
+         *   valid intent URI.
+         */
+        static Entry parse(String intentUri) {
+            try {
+                return new Entry(intentUri, Intent.getIntent(intentUri));
+            } catch (URISyntaxException e) {
+                Log.w(TAG, "Intent URI for shortcut invalid.", e);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * One published set of shortcuts.  The shortcut map is never modified
+     * after publishing, and the index only ever holds results resolved
+     * against that map.  A reload publishes a new set with an empty index
+     * rather than clearing this one, so a lookup that raced with the reload
+     * can only fill in the old index, which nobody reads any more.
+     */
+    private static final class Shortcuts {
+        /** Map of a shortcut to its entry. */
+        final SparseArray<Entry> entries;
+
+        /**
+         * Entries by keycode and modifiers, so the key character map only
+         * has to be consulted once for each combination.
+         */
+        final ShortcutIndex index = new ShortcutIndex();
+
+        Shortcuts(SparseArray<Entry> entries) {
+            this.entries = entries;
+        }
+    }
+
+    private final Runnable mReload = new Runnable() {
+        public void run() {
+            updateShortcuts();
+        }
+    };
     
     public ShortcutManager(Context context, Handler handler) {
         super(handler);
         
         mContext = context;
-        mShortcutIntents = new SparseArray<Intent>();
     }
 
     /** Observes the provider of shortcut+intents */
     public void observe() {
-        mCursor = mContext.getContentResolver().query(
-                Settings.Bookmarks.CONTENT_URI, sProjection, null, null, null);
-        mCursor.registerContentObserver(this);
-        updateShortcuts();
+        HandlerThread thread = new HandlerThread(TAG,
+                Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        mWorker = new Handler(thread.getLooper());
+        mWorker.post(new Runnable() {
+            public void run() {
+                mCursor = mContext.getContentResolver().query(
+                        Settings.Bookmarks.CONTENT_URI, sProjection, null, null, null);
+                mCursor.registerContentObserver(ShortcutManager.this);
+                updateShortcuts();
+            }
+        });
     }
 
     @Override
     public void onChange(boolean selfChange) {
-        updateShortcuts();
+        mWorker.removeCallbacks(mReload);
+        mWorker.post(mReload);
     }
     
     private void updateShortcuts() {
@@ -75,20 +161,25 @@ class ShortcutManager extends ContentObserver {
             return;
         }
 
-        mShortcutIntents.clear();
+        final HashMap<Long, Entry> oldEntries = mEntriesById;
+        final HashMap<Long, Entry> newEntries = new HashMap<Long, Entry>();
+        final SparseArray<Entry> shortcuts = new SparseArray<Entry>();
         while (c.moveToNext()) {
             int shortcut = c.getInt(COLUMN_SHORTCUT);
             if (shortcut == 0) continue;
-            String intentURI = c.getString(COLUMN_INTENT);
-            Intent intent = null;
-            try {
-                intent = Intent.getIntent(intentURI);
-            } catch (URISyntaxException e) {
-                Log.w(TAG, "Intent URI for shortcut invalid.", e);
+            final Long id = c.getLong(COLUMN_ID);
+            final String intentURI = c.getString(COLUMN_INTENT);
+            if (intentURI == null) continue;
+            Entry entry = oldEntries.get(id);
+            if (entry == null || !entry.intentUri.equals(intentURI)) {
+                entry = Entry.parse(intentURI);
+                if (entry == null) continue;
             }
-            if (intent == null) continue;
-            mShortcutIntents.put(shortcut, intent);
+            newEntries.put(id, entry);
+            shortcuts.put(shortcut, entry);
         }
+        mEntriesById = newEntries;
+        mShortcuts = new Shortcuts(shortcuts);
     }
     
     /**
@@ -99,6 +190,8 @@ class ShortcutManager extends ContentObserver {
      * <p>
      * This will first try an exact match (with modifiers), and then try a
      * match without modifiers (primary character on a key).
+     * <p>
+     * Only call this on the input dispatch thread.
      * 
      * @param keyCode The keycode of the key pushed.
      * @param modifiers The modifiers without any that are used for chording
@@ -106,15 +199,105 @@ class ShortcutManager extends ContentObserver {
      * @return The intent that matches the shortcut, or null if not found.
      */
     public Intent getIntent(int keyCode, int modifiers) {
-        KeyCharacterMap kcm = KeyCharacterMap.load(KeyCharacterMap.BUILT_IN_KEYBOARD);
+        final Shortcuts shortcuts = mShortcuts;
+        final int key = ShortcutIndex.key(keyCode, modifiers);
+        Object cached = shortcuts.index.get(key);
+        if (cached == null) {
+            final Entry entry = resolveEntry(shortcuts.entries, keyCode, modifiers);
+            cached = entry != null ? entry : ShortcutIndex.NO_SHORTCUT;
+            shortcuts.index.put(key, cached);
+        }
+        return cached != ShortcutIndex.NO_SHORTCUT ? ((Entry) cached).intent : null;
+    }
+
+    private Entry resolveEntry(SparseArray<Entry> entries, int keyCode, int modifiers) {
+        if (mKeyCharacterMap == null) {
+            mKeyCharacterMap = KeyCharacterMap.load(KeyCharacterMap.BUILT_IN_KEYBOARD);
+        }
+        KeyCharacterMap kcm = mKeyCharacterMap;
         // First try the exact keycode (with modifiers)
         int shortcut = kcm.get(keyCode, modifiers);
-        Intent intent = shortcut != 0 ? mShortcutIntents.get(shortcut) : null; 
-        if (intent != null) return intent;
+        Entry entry = shortcut != 0 ? entries.get(shortcut) : null;
+        if (entry != null) return entry;
         
         // Next try the keycode without modifiers (the primary character on that key)
         shortcut = Character.toLowerCase(kcm.get(keyCode, 0));
-        return shortcut != 0 ? mShortcutIntents.get(shortcut) : null;
+        return shortcut != 0 ? entries.get(shortcut) : null;
+    }
+
+    /**
+     * Open-addressing hash table from an int key, made from a keycode and
+     * its modifiers, to an already resolved shortcut {@link Entry} or
+     * {@link #NO_SHORTCUT}.  Only used on the input dispatch thread.
+     */
+    private static final class ShortcutIndex {
+        /** Stored for combinations that were looked up and have no shortcut. */
+        static final Object NO_SHORTCUT = new Object();
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private int[] mKeys = new int[INITIAL_CAPACITY];
+        private Object[] mValues = new Object[INITIAL_CAPACITY];
+        private int mSize;
+
+        static int key(int keyCode, int modifiers) {
+            return (keyCode << 16) | (modifiers & 0xffff);
+        }
+
+        private static int hash(int key, int mask) {
+            // spread the keycode bits into the low bits used for indexing
+            return (key * 0x9E3779B9 >>> 16) & mask;
+        }
+
+        /**
+         * @return The value stored for <var>key</var>, or null if there is none.
+         */
+        Object get(int key) {
+            final int[] keys = mKeys;
+            final Object[] values = mValues;
+            final int mask = keys.length - 1;
+            int i = hash(key, mask);
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(int key, Object value) {
+            if ((mSize + 1) * 2 > mKeys.length) {
+                grow();
+            }
+            final int[] keys = mKeys;
+            final Object[] values = mValues;
+            final int mask = keys.length - 1;
+            int i = hash(key, mask);
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            mSize++;
+        }
+
+        private void grow() {
+            final int[] oldKeys = mKeys;
+            final Object[] oldValues = mValues;
+            mKeys = new int[oldKeys.length * 2];
+            mValues = new Object[oldValues.length * 2];
+            mSize = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
     }
 
 }
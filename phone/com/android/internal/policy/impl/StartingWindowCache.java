@@ -0,0 +1,455 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.net.Uri;
+import android.view.View;
+import android.view.Window;
+import android.view.WindowManager;
+
+import java.io.PrintWriter;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the themed package contexts and starting windows built by
+ * {@link PhoneWindowManager#addStartingWindow}, so that launching the same
+ * application again doesn't have to create its package context and inflate
+ * a new decor from scratch.
+ *
+ * Contexts are keyed by package and theme, windows by package, theme and
+ * label.  A window is handed out by {@link #takeWindow} and comes back
+ * through {@link #recycleWindow} once its view has been removed from the
+ * window manager, so the same window is never shown twice at once.  Both
+ * caches are small LRU maps of soft references, so the collector can empty
+ * them when memory gets tight.  Entries for a package are dropped when it is
+ * changed or removed, and everything is dropped when the configuration
+ * changes, since that changes the resources a window was built from.
+ *
+ * Optionally ({@link #setSnapshotLimit}) it also keeps what starting windows
+ * looked like, per package, theme, label and orientation, so that a later
+ * launch can show a view that just draws the pixels instead of building a
+ * window at all.  Snapshots are held strongly, up to a limit in bytes.
+ *
+ * May be used from any thread.
+ */
+class StartingWindowCache {
+    /** System property with the snapshot limit in kilobytes; unset or 0 for none. */
+    static final String SNAPSHOT_PROPERTY = "debug.policy.starting_snapshot_kb";
+
+    private static final int MAX_CONTEXTS = 8;
+    private static final int MAX_WINDOWS = 4;
+
+    private static final class Key {
+        final String packageName;
+        final int theme;
+        final int labelRes;
+        /** Only used for snapshots; 0 otherwise. */
+        final int orientation;
+
+        Key(String packageName, int theme, int labelRes) {
+            this(packageName, theme, labelRes, 0);
+        }
+
+        Key(String packageName, int theme, int labelRes, int orientation) {
+            this.packageName = packageName;
+            this.theme = theme;
+            this.labelRes = labelRes;
+            this.orientation = orientation;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return theme == other.theme && labelRes == other.labelRes
+                    && orientation == other.orientation
+                    && packageName.equals(other.packageName);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((packageName.hashCode() * 31 + theme) * 31 + labelRes) * 31 + orientation;
+        }
+    }
+
+    /**
+     * The pixels of a starting window as it was last drawn, with what is
+     * needed to show them in a window of their own.
+     */
+    static final class Snapshot {
+        final Bitmap bitmap;
+        final int format;
+        final int windowAnimations;
+
+        Snapshot(Bitmap bitmap, int format, int windowAnimations) {
+            this.bitmap = bitmap;
+            this.format = format;
+            this.windowAnimations = windowAnimations;
+        }
+
+        int getByteCount() {
+            return bitmap.getRowBytes() * bitmap.getHeight();
+        }
+
+        /**
+         * @return A view that draws the snapshot, stretched if the window
+         *   isn't the size it was taken at.
+         */
+        View createView(Context context) {
+            return new SnapshotView(context, bitmap);
+        }
+    }
+
+    private static final class SnapshotView extends View {
+        private final Bitmap mBitmap;
+        private final Rect mDst = new Rect();
+
+        SnapshotView(Context context, Bitmap bitmap) {
+            super(context);
+            mBitmap = bitmap;
+        }
+
+        @Override
+        protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+            mDst.set(0, 0, w, h);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            if (mBitmap.getWidth() == mDst.right && mBitmap.getHeight() == mDst.bottom) {
+                canvas.drawBitmap(mBitmap, 0, 0, null);
+            } else {
+                canvas.drawBitmap(mBitmap, null, mDst, null);
+            }
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static final class LruMap<V> extends LinkedHashMap<Key, SoftReference<V>> {
+        private final int mMaxSize;
+
+        LruMap(int maxSize) {
+            super(maxSize + 1, 1.0f, true);
+            mMaxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, SoftReference<V>> eldest) {
+            return size() > mMaxSize;
+        }
+
+        /**
+         * @return The value for <var>key</var>, or null if there is none or
+         *   it has been collected.
+         */
+        V getValue(Key key) {
+            final SoftReference<V> ref = get(key);
+            if (ref == null) {
+                return null;
+            }
+            final V value = ref.get();
+            if (value == null) {
+                remove(key);
+            }
+            return value;
+        }
+
+        void removePackage(String packageName) {
+            final Iterator<Key> it = keySet().iterator();
+            while (it.hasNext()) {
+                if (it.next().packageName.equals(packageName)) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static final class LiveWindow {
+        final Key key;
+        final Window window;
+        /** The cache generation it was shown in. */
+        final int generation;
+
+        LiveWindow(Key key, Window window, int generation) {
+            this.key = key;
+            this.window = window;
+            this.generation = generation;
+        }
+    }
+
+    // these are protected by synchronized (this)
+    private final LruMap<Context> mContexts = new LruMap<Context>(MAX_CONTEXTS);
+    private final LruMap<Window> mWindows = new LruMap<Window>(MAX_WINDOWS);
+    /** Windows that are showing, by decor view. */
+    private final HashMap<View, LiveWindow> mLive = new HashMap<View, LiveWindow>();
+    /** Bumped on every invalidation, so windows shown before one aren't kept. */
+    private int mGeneration;
+
+    /** In least recently used order; not soft, since they are capped by size. */
+    private final LinkedHashMap<Key, Snapshot> mSnapshots =
+            new LinkedHashMap<Key, Snapshot>(16, 0.75f, true);
+    /** 0 when snapshots are turned off. */
+    private int mSnapshotLimitBytes;
+    private int mSnapshotBytes;
+    private long mSnapshotHits;
+    private long mSnapshotMisses;
+    private long mSnapshotEvictions;
+
+    private long mContextHits;
+    private long mContextMisses;
+    private long mWindowHits;
+    private long mWindowMisses;
+    private long mInvalidations;
+
+    private final BroadcastReceiver mReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (Intent.ACTION_CONFIGURATION_CHANGED.equals(intent.getAction())) {
+                clear();
+                return;
+            }
+            final Uri data = intent.getData();
+            final String packageName = data != null ? data.getSchemeSpecificPart() : null;
+            if (packageName != null) {
+                invalidatePackage(packageName);
+            } else {
+                clear();
+            }
+        }
+    };
+
+    /**
+     * Start listening for package and configuration changes.
+     */
+    void register(Context context) {
+        final IntentFilter packageFilter = new IntentFilter();
+        packageFilter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        packageFilter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        packageFilter.addDataScheme("package");
+        context.registerReceiver(mReceiver, packageFilter);
+        context.registerReceiver(mReceiver,
+                new IntentFilter(Intent.ACTION_CONFIGURATION_CHANGED));
+    }
+
+    /**
+     * @return A context for <var>packageName</var> with <var>theme</var>
+     *   applied, or null if there isn't one cached.
+     */
+    synchronized Context getContext(String packageName, int theme) {
+        final Context context = mContexts.getValue(new Key(packageName, theme, 0));
+        if (context != null) {
+            mContextHits++;
+        } else {
+            mContextMisses++;
+        }
+        return context;
+    }
+
+    synchronized void putContext(String packageName, int theme, Context context) {
+        mContexts.put(new Key(packageName, theme, 0), new SoftReference<Context>(context));
+    }
+
+    /**
+     * Take a window built earlier for the same package, theme and label,
+     * whose view is no longer in the window manager.  The caller must pass
+     * its view to {@link #addLiveWindow} once it is showing.
+     *
+     * @return The window, or null if there isn't one.
+     */
+    synchronized Window takeWindow(String packageName, int theme, int labelRes) {
+        final Key key = new Key(packageName, theme, labelRes);
+        final Window window = mWindows.getValue(key);
+        if (window != null) {
+            mWindows.remove(key);
+            if (window.getDecorView().getParent() == null) {
+                mWindowHits++;
+                return window;
+            }
+        }
+        mWindowMisses++;
+        return null;
+    }
+
+    /**
+     * Note that <var>window</var>, built for the given package, theme and
+     * label, is showing as <var>view</var>.
+     */
+    synchronized void addLiveWindow(View view, Window window, String packageName,
+            int theme, int labelRes) {
+        mLive.put(view, new LiveWindow(new Key(packageName, theme, labelRes), window,
+                mGeneration));
+    }
+
+    /**
+     * <var>view</var>, which may or may not have come from a cached window,
+     * has been removed from the window manager; keep its window for next
+     * time if it is still valid.
+     */
+    synchronized void recycleWindow(View view) {
+        final LiveWindow live = mLive.remove(view);
+        if (live == null || live.generation != mGeneration) {
+            return;
+        }
+        if (view.getParent() == null) {
+            mWindows.put(live.key, new SoftReference<Window>(live.window));
+        }
+    }
+
+    /**
+     * Turn on snapshots, keeping at most <var>limitBytes</var> of pixels.
+     */
+    synchronized void setSnapshotLimit(int limitBytes) {
+        mSnapshotLimitBytes = limitBytes;
+        trimSnapshots(0);
+    }
+
+    synchronized boolean hasSnapshots() {
+        return mSnapshotLimitBytes > 0;
+    }
+
+    /**
+     * @return The snapshot of the starting window for this package, theme,
+     *   label and orientation, or null if there isn't one.
+     */
+    synchronized Snapshot getSnapshot(String packageName, int theme, int labelRes,
+            int orientation) {
+        final Snapshot snapshot = mSnapshots.get(
+                new Key(packageName, theme, labelRes, orientation));
+        if (snapshot != null) {
+            mSnapshotHits++;
+        } else {
+            mSnapshotMisses++;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Draw <var>view</var>, a starting window that is about to be removed,
+     * into a snapshot for next time, if it came from here and there isn't
+     * one already.
+     */
+    void captureSnapshot(View view, WindowManager.LayoutParams attrs, int orientation) {
+        final Key key;
+        final int generation;
+        synchronized (this) {
+            final LiveWindow live = mLive.get(view);
+            if (mSnapshotLimitBytes == 0 || live == null) {
+                return;
+            }
+            key = new Key(live.key.packageName, live.key.theme, live.key.labelRes,
+                    orientation);
+            if (mSnapshots.containsKey(key)) {
+                return;
+            }
+            generation = mGeneration;
+        }
+
+        final int width = view.getWidth();
+        final int height = view.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        // Opaque windows only need 16 bits a pixel.
+        final Bitmap bitmap = Bitmap.createBitmap(width, height,
+                attrs.format == PixelFormat.OPAQUE
+                        ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888);
+        view.draw(new Canvas(bitmap));
+        final Snapshot snapshot = new Snapshot(bitmap, attrs.format, attrs.windowAnimations);
+
+        synchronized (this) {
+            final int bytes = snapshot.getByteCount();
+            if (generation != mGeneration || bytes > mSnapshotLimitBytes
+                    || mSnapshots.containsKey(key)) {
+                return;
+            }
+            trimSnapshots(bytes);
+            mSnapshots.put(key, snapshot);
+            mSnapshotBytes += bytes;
+        }
+    }
+
+    /**
+     * Drop the least recently used snapshots until <var>needed</var> more
+     * bytes fit under the limit.
+     */
+    private void trimSnapshots(int needed) {
+        final Iterator<Snapshot> it = mSnapshots.values().iterator();
+        while (mSnapshotBytes + needed > mSnapshotLimitBytes && it.hasNext()) {
+            mSnapshotBytes -= it.next().getByteCount();
+            it.remove();
+            mSnapshotEvictions++;
+        }
+    }
+
+    synchronized void invalidatePackage(String packageName) {
+        mInvalidations++;
+        mGeneration++;
+        mContexts.removePackage(packageName);
+        mWindows.removePackage(packageName);
+        final Iterator<Map.Entry<Key, Snapshot>> it = mSnapshots.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<Key, Snapshot> entry = it.next();
+            if (entry.getKey().packageName.equals(packageName)) {
+                mSnapshotBytes -= entry.getValue().getByteCount();
+                it.remove();
+            }
+        }
+    }
+
+    synchronized void clear() {
+        mInvalidations++;
+        mGeneration++;
+        mContexts.clear();
+        mWindows.clear();
+        mSnapshots.clear();
+        mSnapshotBytes = 0;
+    }
+
+    synchronized void dump(String prefix, PrintWriter pw) {
+        pw.print(prefix); pw.print("contexts="); pw.print(mContexts.size());
+                pw.print(" hits="); pw.print(mContextHits);
+                pw.print(" misses="); pw.println(mContextMisses);
+        pw.print(prefix); pw.print("windows="); pw.print(mWindows.size());
+                pw.print(" showing="); pw.print(mLive.size());
+                pw.print(" hits="); pw.print(mWindowHits);
+                pw.print(" misses="); pw.println(mWindowMisses);
+        if (mSnapshotLimitBytes > 0) {
+            pw.print(prefix); pw.print("snapshots="); pw.print(mSnapshots.size());
+                    pw.print(" bytes="); pw.print(mSnapshotBytes);
+                    pw.print("/"); pw.print(mSnapshotLimitBytes);
+                    pw.print(" hits="); pw.print(mSnapshotHits);
+                    pw.print(" misses="); pw.print(mSnapshotMisses);
+                    pw.print(" evictions="); pw.println(mSnapshotEvictions);
+        }
+        pw.print(prefix); pw.print("invalidations="); pw.println(mInvalidations);
+    }
+}
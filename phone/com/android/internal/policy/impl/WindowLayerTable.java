@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2008 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.internal.policy.impl;
+
+import android.os.SystemProperties;
+import android.util.Log;
+import android.view.WindowManager;
+
+import java.io.PrintWriter;
+
+/**
+ * Maps window types to layers with a table lookup.
+ *
+ * The table covers the sub-window and system window ranges; application
+ * windows are all in one layer and are checked by range.  Types the table
+ * has no layer for are counted, and only the first is logged, since the
+ * window manager asks for layers constantly.
+ *
+ * Devices can add or change layers for their own window types with the
+ * {@link #LAYERS_PROPERTY} and {@link #SUB_LAYERS_PROPERTY} system
+ * properties, each a comma separated list of <code>type=layer</code>.
+ */
+class WindowLayerTable {
+    private static final String TAG = "WindowManager";
+
+    /** Extra window type to layer entries. */
+    static final String LAYERS_PROPERTY = "ro.policy.window_layers";
+    /** Extra sub-window type to sub-layer entries. */
+    static final String SUB_LAYERS_PROPERTY = "ro.policy.sub_window_layers";
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+
+    private static final int FIRST_TYPE = WindowManager.LayoutParams.FIRST_SUB_WINDOW;
+    private static final int LAST_TYPE = WindowManager.LayoutParams.LAST_SYSTEM_WINDOW;
+
+    private final int mApplicationLayer;
+
+    /** Layers of sub-window and system window types, indexed from FIRST_TYPE. */
+    private final int[] mLayers = new int[LAST_TYPE - FIRST_TYPE + 1];
+    /** Sub-layers of sub-window types, indexed from FIRST_SUB_WINDOW. */
+    private final int[] mSubLayers = new int[WindowManager.LayoutParams.LAST_SUB_WINDOW
+            - WindowManager.LayoutParams.FIRST_SUB_WINDOW + 1];
+
+    // Only changed with the window manager lock held.
+    private int mUnknownTypes;
+    private int mUnknownSubTypes;
+    private int mLastUnknownType;
+    private int mLastUnknownSubType;
+
+    /**
+     * @param applicationLayer The layer of application windows, also used
+     *   for types that have no layer.
+     */
+    WindowLayerTable(int applicationLayer) {
+        mApplicationLayer = applicationLayer;
+        for (int i = 0; i < mLayers.length; i++) mLayers[i] = UNKNOWN;
+        for (int i = 0; i < mSubLayers.length; i++) mSubLayers[i] = UNKNOWN;
+    }
+
+    void setLayer(int type, int layer) {
+        if (type < FIRST_TYPE || type > LAST_TYPE) {
+            throw new IllegalArgumentException("window type " + type + " has no table entry");
+        }
+        mLayers[type - FIRST_TYPE] = layer;
+    }
+
+    void setSubLayer(int type, int subLayer) {
+        if (type < WindowManager.LayoutParams.FIRST_SUB_WINDOW
+                || type > WindowManager.LayoutParams.LAST_SUB_WINDOW) {
+            throw new IllegalArgumentException("window type " + type + " is not a sub-window");
+        }
+        mSubLayers[type - WindowManager.LayoutParams.FIRST_SUB_WINDOW] = subLayer;
+    }
+
+    /**
+     * Apply the entries from {@link #LAYERS_PROPERTY} and
+     * {@link #SUB_LAYERS_PROPERTY}.  Call after the defaults have been set.
+     */
+    void readOverrides() {
+        readOverrides(LAYERS_PROPERTY, false);
+        readOverrides(SUB_LAYERS_PROPERTY, true);
+    }
+
+    private void readOverrides(String property, boolean sub) {
+        final String value = SystemProperties.get(property);
+        if (value == null || value.length() == 0) {
+            return;
+        }
+        for (String entry : value.split(",")) {
+            final int eq = entry.indexOf('=');
+            try {
+                if (eq < 0) {
+                    throw new IllegalArgumentException("expected type=layer");
+                }
+                final int type = Integer.parseInt(entry.substring(0, eq).trim());
+                final int layer = Integer.parseInt(entry.substring(eq + 1).trim());
+                if (sub) {
+                    setSubLayer(type, layer);
+                } else {
+                    setLayer(type, layer);
+                }
+            } catch (IllegalArgumentException e) {
+                // NumberFormatException is an IllegalArgumentException
+                Log.w(TAG, "Ignoring bad entry \"" + entry + "\" in " + property + ": "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    int windowTypeToLayer(int type) {
+        if (type >= WindowManager.LayoutParams.FIRST_APPLICATION_WINDOW
+                && type <= WindowManager.LayoutParams.LAST_APPLICATION_WINDOW) {
+            return mApplicationLayer;
+        }
+        final int layer = (type >= FIRST_TYPE && type <= LAST_TYPE)
+                ? mLayers[type - FIRST_TYPE] : UNKNOWN;
+        if (layer != UNKNOWN) {
+            return layer;
+        }
+        if (mUnknownTypes++ == 0) {
+            Log.e(TAG, "Unknown window type: " + type);
+        }
+        mLastUnknownType = type;
+        return mApplicationLayer;
+    }
+
+    int subWindowTypeToLayer(int type) {
+        final int index = type - WindowManager.LayoutParams.FIRST_SUB_WINDOW;
+        final int subLayer = (index >= 0 && index < mSubLayers.length)
+                ? mSubLayers[index] : UNKNOWN;
+        if (subLayer != UNKNOWN) {
+            return subLayer;
+        }
+        if (mUnknownSubTypes++ == 0) {
+            Log.e(TAG, "Unknown sub-window type: " + type);
+        }
+        mLastUnknownSubType = type;
+        return 0;
+    }
+
+    void dump(String prefix, PrintWriter pw) {
+        pw.print(prefix); pw.print("unknown types="); pw.print(mUnknownTypes);
+                if (mUnknownTypes > 0) {
+                    pw.print(" (last "); pw.print(mLastUnknownType); pw.print(")");
+                }
+                pw.print(" unknown sub-window types="); pw.print(mUnknownSubTypes);
+                if (mUnknownSubTypes > 0) {
+                    pw.print(" (last "); pw.print(mLastUnknownSubType); pw.print(")");
+                }
+                pw.println();
+    }
+}